@@ -0,0 +1,171 @@
+package com.blog._1.cache;
+
+import com.blog._1.dto.admin.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Two-tier cache: a small in-process Caffeine cache (L1) in front of a
+ * shared Redis cache (L2).
+ *
+ * L1 hits skip both the network and Jackson deserialization, so values
+ * handed out by this cache are SHARED between requests. Callers that add
+ * per-user data must copy first (see PostResponse#copy).
+ *
+ * Evictions are forwarded to L2 and broadcast to the other nodes through
+ * the invalidation publisher; the L1 TTL bounds staleness if a message is lost.
+ */
+public class NearCache implements Cache {
+
+    static final String ALL_KEYS = "*";
+
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Consumer<String> invalidationPublisher;
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public NearCache(Cache remote, long maxSize, Duration ttl, Consumer<String> invalidationPublisher) {
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            local.put(localKey, wrapper.get());
+        } else {
+            remoteMisses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+
+        T loaded = remote.get(key, valueLoader);
+        if (loaded != null) {
+            local.put(localKey, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(localKey(key), value);
+        } else {
+            local.invalidate(localKey(key));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(ALL_KEYS);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean existed = remote.invalidate();
+        local.invalidateAll();
+        invalidationPublisher.accept(ALL_KEYS);
+        return existed;
+    }
+
+    // --- Called for invalidations published by other nodes (L1 only) ---
+
+    void evictLocal(String localKey) {
+        if (ALL_KEYS.equals(localKey)) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+
+    CacheStatsDTO stats() {
+        CacheStats s = local.stats();
+        return CacheStatsDTO.builder()
+                .name(getName())
+                .localSize(local.estimatedSize())
+                .localHits(s.hitCount())
+                .localMisses(s.missCount())
+                .localEvictions(s.evictionCount())
+                .remoteHits(remoteHits.sum())
+                .remoteMisses(remoteMisses.sum())
+                .build();
+    }
+
+    // RedisCache stringifies keys the same way, so both tiers agree on identity
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,96 @@
+package com.blog._1.cache;
+
+import com.blog._1.dto.admin.CacheStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps the Redis cache manager and puts a {@link NearCache} in front of the
+ * configured hot caches. Every other cache name is served by Redis directly.
+ *
+ * Also listens on {@link #INVALIDATION_CHANNEL} so that an eviction on one
+ * node drops the matching L1 entry on all the others.
+ * Message format: "nodeId|cacheName|key" ("*" as key clears the cache).
+ */
+@Slf4j
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:near:invalidate";
+
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final Set<String> nearCacheNames;
+    private final long maxSize;
+    private final Duration ttl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager remote, StringRedisTemplate redisTemplate,
+            Set<String> nearCacheNames, long maxSize, Duration ttl) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.nearCacheNames = nearCacheNames;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache target = remote.getCache(n);
+            if (target == null || !nearCacheNames.contains(n)) {
+                return target;
+            }
+            return new NearCache(target, maxSize, ttl, key -> publishInvalidation(n, key));
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return caches.values().stream()
+                .filter(NearCache.class::isInstance)
+                .map(c -> ((NearCache) c).stats())
+                .toList();
+    }
+
+    // --- Cross-node invalidation ---
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + cacheName + "|" + key);
+        } catch (RuntimeException e) {
+            // Never fail the write because of pub/sub; the L1 TTL still bounds staleness
+            log.warn("Failed to publish near-cache invalidation for {}::{}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        if (caches.get(parts[1]) instanceof NearCache near) {
+            near.evictLocal(parts[2]);
+        }
+    }
+}
@@ -4,9 +4,11 @@ import java.nio.file.AccessDeniedException;
 import java.security.SignatureException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -85,6 +87,14 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", "Database constraint error: " + ex.getMessage()));
     }
 
+    // A bounded worker pool is saturated (e.g. password hashing): fail fast, let the client retry
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleRejectedExecution(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Server busy, please retry"));
+    }
+
     // Custom runtime errors
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<?> handleRuntime(RuntimeException ex) {
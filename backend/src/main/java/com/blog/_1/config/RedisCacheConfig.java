@@ -7,25 +7,45 @@ import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 // MISSING IMPORT ADDED HERE:
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 // UPDATED SERIALIZER IMPORT:
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.blog._1.cache.NearCacheManager;
+
 import java.time.Duration;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
 public class RedisCacheConfig {
 
+        // Shared by every Redis pub/sub consumer (near-cache invalidation, ...)
         @Bean
-        public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+        public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+                RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(connectionFactory);
+                return container;
+        }
+
+        @Bean
+        public NearCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                        StringRedisTemplate redisTemplate,
+                        RedisMessageListenerContainer listenerContainer,
+                        @Value("${cache.near.names:single_post,single_user,post_pages,post_cards,user_principal}") String[] nearCacheNames,
+                        @Value("${cache.near.max-size:10000}") long nearCacheMaxSize,
+                        @Value("${cache.near.ttl-seconds:30}") long nearCacheTtlSeconds) {
 
                 PolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator.builder()
                                 .allowIfBaseType(Object.class)
@@ -45,8 +65,16 @@ public class RedisCacheConfig {
                                                 RedisSerializationContext.SerializationPair.fromSerializer(serializer))
                                 .disableCachingNullValues();
 
-                return RedisCacheManager.builder(connectionFactory)
+                RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                                 .cacheDefaults(config)
                                 .build();
+                redisCacheManager.afterPropertiesSet();
+
+                // L1 in-process tier in front of the hottest caches
+                NearCacheManager cacheManager = new NearCacheManager(redisCacheManager, redisTemplate,
+                                Set.of(nearCacheNames), nearCacheMaxSize, Duration.ofSeconds(nearCacheTtlSeconds));
+                listenerContainer.addMessageListener(cacheManager,
+                                new ChannelTopic(NearCacheManager.INVALIDATION_CHANNEL));
+                return cacheManager;
         }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.blog._1.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotent DDL that ddl-auto=update cannot express (storage options,
+ * dropping replaced indexes, cleaning data before a new unique index).
+ * Every statement is safe to run on each startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // before any startup job that relies on this schema
+    public void apply() {
+        // post_bodies frames are already deflated: skip TOAST compression so
+        // substring() reads only the requested bytes
+        run("ALTER TABLE post_bodies ALTER COLUMN data SET STORAGE EXTERNAL");
+
+        // Chunks are now unique per (post_id, chunk_index); keep the latest row of older duplicates
+        run("DELETE FROM post_content_chunks a USING post_content_chunks b "
+                + "WHERE a.post_id = b.post_id AND a.chunk_index = b.chunk_index AND a.ctid < b.ctid");
+        run("CREATE UNIQUE INDEX IF NOT EXISTS uk_content_chunks_post_chunk_index "
+                + "ON post_content_chunks (post_id, chunk_index)");
+
+        // Both covered by the unique index above
+        run("DROP INDEX IF EXISTS idx_content_chunks_post_id");
+        run("DROP INDEX IF EXISTS idx_content_chunks_post_chunk_index");
+
+        // Full-text search documents, maintained by PostSearchService
+        run("CREATE TABLE IF NOT EXISTS post_search_index ("
+                + "post_id UUID PRIMARY KEY REFERENCES posts (id) ON DELETE CASCADE, "
+                + "document TSVECTOR NOT NULL)");
+        run("CREATE INDEX IF NOT EXISTS idx_post_search_document ON post_search_index USING GIN (document)");
+
+        // Posts published before published_at existed: their creation time is the best estimate
+        run("UPDATE posts SET published_at = created_at WHERE status = 'PUBLISHED' AND published_at IS NULL");
+
+        // Per-day activity counts for the admin dashboard, maintained by DailyStatsService
+        run("CREATE TABLE IF NOT EXISTS daily_stats ("
+                + "day DATE PRIMARY KEY, "
+                + "users BIGINT NOT NULL DEFAULT 0, posts BIGINT NOT NULL DEFAULT 0, "
+                + "likes BIGINT NOT NULL DEFAULT 0, comments BIGINT NOT NULL DEFAULT 0, "
+                + "reports BIGINT NOT NULL DEFAULT 0)");
+    }
+
+    private void run(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (RuntimeException e) {
+            log.warn("Schema maintenance statement failed: {}", sql, e);
+        }
+    }
+}
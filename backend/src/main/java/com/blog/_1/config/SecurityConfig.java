@@ -12,6 +12,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import com.blog._1.security.JwtAuthFilter;
 import com.blog._1.security.JwtService;
 import com.blog._1.security.OAuth2LoginSuccessHandler;
+import com.blog._1.security.RateLimitFilter;
+import com.blog._1.security.RateLimiter;
+import com.blog._1.security.TokenRateLimitFilter;
 import com.blog._1.services.UserService;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -25,6 +28,7 @@ public class SecurityConfig {
     private final JwtService jwtService;
     private final UserService userService;
     private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
+    private final RateLimiter rateLimiter;
 
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
@@ -89,7 +93,9 @@ public class SecurityConfig {
                 .oauth2Login(oauth2 -> oauth2
                         .successHandler(oAuth2LoginSuccessHandler))
                 .addFilterBefore(new JwtAuthFilter(jwtService, userService),
-                        UsernamePasswordAuthenticationFilter.class);
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new TokenRateLimitFilter(rateLimiter), JwtAuthFilter.class)
+                .addFilterAfter(new RateLimitFilter(rateLimiter), JwtAuthFilter.class);
 
         return http.build();
     }
@@ -1,11 +1,18 @@
 package com.blog._1.controllers;
 
+import com.blog._1.cache.NearCacheManager;
+import com.blog._1.dto.admin.CacheStatsDTO;
 import com.blog._1.dto.admin.DashboardStatsDTO;
+import com.blog._1.dto.admin.NotificationPipelineStatsDTO;
+import com.blog._1.dto.admin.PasswordHashingStatsDTO;
 import com.blog._1.dto.post.PostResponse;
 import com.blog._1.dto.report.ReportResponse;
 import com.blog._1.dto.user.AdminUserDTO;
 import com.blog._1.models.Role;
 import com.blog._1.services.DashboardService;
+import com.blog._1.services.NotificationPipeline;
+import com.blog._1.services.PageCountService;
+import com.blog._1.services.PasswordHashingService;
 import com.blog._1.services.PostService;
 import com.blog._1.services.ReportService;
 import com.blog._1.services.UserService;
@@ -27,17 +34,37 @@ public class AdminController {
     private final ReportService reportService;
     private final PostService postService;
     private final DashboardService dashboardService;
+    private final NearCacheManager cacheManager;
+    private final NotificationPipeline notificationPipeline;
+    private final PasswordHashingService passwordHashingService;
 
     @GetMapping("/stats")
-    public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
-        return ResponseEntity.ok(dashboardService.getDashboardStats());
+    public ResponseEntity<DashboardStatsDTO> getDashboardStats(@RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(dashboardService.getDashboardStats(days));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheManager.stats());
+    }
+
+    @GetMapping("/notifications/pipeline")
+    public ResponseEntity<NotificationPipelineStatsDTO> getNotificationPipelineStats() {
+        return ResponseEntity.ok(notificationPipeline.stats());
+    }
+
+    @GetMapping("/security/password-hashing")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.stats());
     }
 
     @GetMapping("/users")
     public ResponseEntity<Page<AdminUserDTO>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(userService.getAllUsers(page, size).map(AdminUserDTO::from));
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "exact") String count) {
+        return ResponseEntity.ok(userService.getAllUsers(page, size, PageCountService.Mode.parse(count))
+                .map(AdminUserDTO::from));
     }
 
     @PatchMapping("/users/{id}/ban")
@@ -63,8 +90,9 @@ public class AdminController {
     @GetMapping("/posts")
     public ResponseEntity<Page<PostResponse>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(postService.getAll(page, size));
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "exact") String count) {
+        return ResponseEntity.ok(postService.getAll(page, size, PageCountService.Mode.parse(count)));
     }
 
     @GetMapping("/reports")
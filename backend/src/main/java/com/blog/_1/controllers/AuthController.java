@@ -7,6 +7,7 @@ import com.blog._1.services.AuthenticationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -18,14 +19,14 @@ public class AuthController {
     private final AuthenticationService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@Valid @RequestBody UserLoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@Valid @RequestBody UserLoginRequest request) {
+        return authService.login(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@Valid @RequestBody UserRegisterRequest request) {
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(authService.register(request));
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> register(
+            @Valid @RequestBody UserRegisterRequest request) {
+        return authService.register(request)
+                .thenApply(body -> ResponseEntity.status(HttpStatus.CREATED).body(body));
     }
 }
\ No newline at end of file
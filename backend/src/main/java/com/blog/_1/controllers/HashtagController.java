@@ -20,6 +20,14 @@ public class HashtagController {
         return ResponseEntity.ok(hashtagService.getPopularTags(limit));
     }
 
+    // window: 24h or 7d, recent uses weigh more
+    @GetMapping("/trending")
+    public ResponseEntity<List<String>> getTrendingTags(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(hashtagService.getTrendingTags(window, limit));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<String>> searchTags(@RequestParam String query) {
         return ResponseEntity.ok(hashtagService.searchTags(query));
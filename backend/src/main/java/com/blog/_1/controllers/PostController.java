@@ -2,18 +2,26 @@ package com.blog._1.controllers;
 
 import com.blog._1.dto.post.*;
 import com.blog._1.models.User;
+import com.blog._1.services.ChunkUploadService;
+import com.blog._1.services.PageCountService;
+import com.blog._1.services.PostContentService;
 import com.blog._1.services.PostService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -24,6 +32,8 @@ import java.util.UUID;
 public class PostController {
 
     private final PostService postService;
+    private final PostContentService postContentService;
+    private final ChunkUploadService chunkUploadService;
 
     // --- Standalone Media Upload ---
 
@@ -54,6 +64,25 @@ public class PostController {
         return ResponseEntity.ok().build();
     }
 
+    // Checks ownership once; the returned token authorizes the chunk batches below
+    @PostMapping("/{id}/upload-session")
+    public ResponseEntity<UploadSessionResponse> openUploadSession(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(chunkUploadService.openSession(id, currentUser.getId()));
+    }
+
+    // Idempotent: chunks are upserted by index, batches may be sent in parallel
+    @PostMapping("/{id}/chunks")
+    public ResponseEntity<Void> uploadChunks(
+            @PathVariable UUID id,
+            @RequestHeader(value = "X-Upload-Token", required = false) String uploadToken,
+            @RequestBody @Valid ChunkBatchRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        chunkUploadService.uploadBatch(id, uploadToken, currentUser.getId(), request.getChunks());
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/{id}/publish")
     public ResponseEntity<PostResponse> publishPost(
             @PathVariable UUID id,
@@ -67,8 +96,61 @@ public class PostController {
     @GetMapping
     public ResponseEntity<Page<PostResponse>> getAll(
             @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "exact") String count) {
+        return ResponseEntity.ok(postService.getAll(page, size, PageCountService.Mode.parse(count)));
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<PostResponse>> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(postService.getFeed(currentUser.getId(), cursor, size));
+    }
+
+    // --- Cursor (keyset) variants: no OFFSET, no total count ---
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<PostResponse>> scrollAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.scrollAll(cursor, size));
+    }
+
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPage<PostResponse>> scrollSearch(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) Boolean liked,
+            @RequestParam(required = false) Boolean followed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal User currentUser) {
+        UUID currentUserId = currentUser != null ? currentUser.getId() : null;
+
+        return ResponseEntity.ok(
+                postService.scrollSearch(q, author, tags, liked, followed, currentUserId, cursor, size));
+    }
+
+    @GetMapping("/user/{userId}/scroll")
+    public ResponseEntity<CursorPage<PostResponse>> scrollByUser(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(postService.getAll(page, size));
+        return ResponseEntity.ok(postService.scrollByUser(userId, cursor, size));
+    }
+
+    @GetMapping("/tag/{tag}/scroll")
+    public ResponseEntity<CursorPage<PostResponse>> scrollByTag(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.scrollByTag(tag, cursor, size));
     }
 
     @GetMapping("/saved")
@@ -94,11 +176,12 @@ public class PostController {
             @RequestParam(required = false) Boolean followed,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "exact") String count,
             @AuthenticationPrincipal User currentUser) {
         UUID currentUserId = currentUser != null ? currentUser.getId() : null;
 
-        return ResponseEntity.ok(
-                postService.searchPosts(q, author, tags, liked, followed, currentUserId, page, size));
+        return ResponseEntity.ok(postService.searchPosts(q, author, tags, liked, followed, currentUserId, page, size,
+                PageCountService.Mode.parse(count)));
     }
 
     @GetMapping("/user/{userId}")
@@ -113,8 +196,9 @@ public class PostController {
     public ResponseEntity<Page<PostResponse>> getByTag(
             @PathVariable String tag,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(postService.getByTag(tag, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "exact") String count) {
+        return ResponseEntity.ok(postService.getByTag(tag, page, size, PageCountService.Mode.parse(count)));
     }
 
     // --- Dynamic /{id} Routes AFTER static routes ---
@@ -132,6 +216,30 @@ public class PostController {
         return ResponseEntity.ok(postService.getContentChunks(id, page, size));
     }
 
+    // Whole article in one response, streamed from a DB cursor
+    @GetMapping("/{id}/content/stream")
+    public ResponseEntity<StreamingResponseBody> streamContent(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostContentService.Format contentFormat = PostContentService.Format.parse(format);
+        PostContentService.ContentVersion version = postContentService.version(id);
+
+        if (version.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version.etag()).build();
+        }
+
+        MediaType contentType = contentFormat == PostContentService.Format.TEXT
+                ? new MediaType("text", "plain", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+
+        return ResponseEntity.ok()
+                .eTag(version.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(contentType)
+                .body(postContentService.stream(version, contentFormat));
+    }
+
     @DeleteMapping("/{id}/content")
     public ResponseEntity<Void> clearContent(
             @PathVariable UUID id,
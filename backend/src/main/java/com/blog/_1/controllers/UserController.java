@@ -90,9 +90,8 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        User targetUser = currentUser.getId().equals(id)
-                ? currentUser
-                : userService.getUserById(id);
+        // The authenticated principal only carries id/role/banned
+        User targetUser = userService.getUserById(id);
 
         return ResponseEntity.ok(userService.getFullUserData(targetUser));
     }
@@ -0,0 +1,20 @@
+package com.blog._1.dto.admin;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheStatsDTO {
+    private String name;
+
+    // L1 (in-process)
+    private long localSize;
+    private long localHits;
+    private long localMisses;
+    private long localEvictions; // size or TTL based, not explicit evicts
+
+    // L2 (Redis), only consulted on L1 misses
+    private long remoteHits;
+    private long remoteMisses;
+}
@@ -7,11 +7,15 @@ import java.util.List;
 @Data
 @Builder
 public class DashboardStatsDTO {
+    private int days; // Range covered by the series below
     private long totalUsers;
     private long totalPosts;
     private long pendingReports;
 
 
-    private List<ChartDataPoint> userGrowth; // Last 7 days
-    private List<ChartDataPoint> postGrowth; // Last 7 days
-}
\ No newline at end of file
+    private List<ChartDataPoint> userGrowth; // One point per day
+    private List<ChartDataPoint> postGrowth;
+    private List<ChartDataPoint> likeActivity;
+    private List<ChartDataPoint> commentActivity;
+    private List<ChartDataPoint> reportActivity;
+}
@@ -0,0 +1,22 @@
+package com.blog._1.dto.admin;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NotificationPipelineStatsDTO {
+    private int queueDepth;
+    private int queueCapacity;
+
+    private long jobsSubmitted;
+    private long jobsCompleted;
+    private long jobsFailed;
+    private long jobsRunOnCaller; // queue was full, fan-out ran on the publishing thread
+
+    private long notificationsInserted;
+
+    // Time between post publication (commit) and the start of its fan-out
+    private long lastLagMillis;
+    private long maxLagMillis;
+}
@@ -0,0 +1,20 @@
+package com.blog._1.dto.admin;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PasswordHashingStatsDTO {
+    private int threads;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+
+    private long hashesCompleted;
+    private long hashesRejected; // pool saturated, answered 503 without hashing
+
+    // Hashing time only, queueing excluded
+    private double avgHashMillis;
+    private long maxHashMillis;
+}
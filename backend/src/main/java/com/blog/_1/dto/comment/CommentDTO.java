@@ -3,15 +3,34 @@ package com.blog._1.dto.comment;
 import com.blog._1.dto.user.UserPublicProfileDTO;
 import com.blog._1.models.Comment;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
 public class CommentDTO {
     private UUID id;
     private String text;
     private String createdAt;
     private UserPublicProfileDTO author;
 
+    // Constructor for JPQL Queries (comment joined with its author, no entity hydration)
+    public CommentDTO(UUID id, String text, LocalDateTime createdAt,
+            UUID authorId, String authorUsername, String authorAvatarUrl) {
+        this.id = id;
+        this.text = text;
+        this.createdAt = createdAt != null ? createdAt.toString() : null;
+        if (authorId != null) {
+            UserPublicProfileDTO u = new UserPublicProfileDTO();
+            u.setId(authorId);
+            u.setUsername(authorUsername);
+            u.setAvatarUrl(authorAvatarUrl);
+            this.author = u;
+        }
+    }
+
     public static CommentDTO from(Comment comment) {
         CommentDTO dto = new CommentDTO();
         dto.setId(comment.getId());
@@ -0,0 +1,31 @@
+package com.blog._1.dto.post;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ChunkBatchRequest {
+
+    @NotEmpty
+    @Size(max = 50, message = "At most 50 chunks per request")
+    private List<@Valid Item> chunks;
+
+    @Data
+    public static class Item {
+        @NotNull
+        @Min(0)
+        @Max(99999)
+        private Integer index;
+
+        @NotNull
+        @Size(max = 10000, message = "Chunk size must not exceed 10000 characters")
+        private String content;
+    }
+}
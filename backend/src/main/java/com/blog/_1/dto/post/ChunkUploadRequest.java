@@ -1,5 +1,7 @@
 package com.blog._1.dto.post;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -12,6 +14,8 @@ public class ChunkUploadRequest {
     private UUID postId;
 
     @NotNull
+    @Min(0)
+    @Max(99999)
     private Integer index;
 
     @NotNull
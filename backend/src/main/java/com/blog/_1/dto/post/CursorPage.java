@@ -0,0 +1,20 @@
+package com.blog._1.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Slice of a keyset-paginated listing. No total count is computed;
+ * pass nextCursor back to fetch the following slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> implements Serializable {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,62 @@
+package com.blog._1.dto.post;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+import com.blog._1.models.Post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Opaque keyset position in a newest-first post listing: (createdAt, id).
+ * Encoded as base64url so clients treat it as a token, not as data.
+ */
+@Data
+@AllArgsConstructor
+public class PostCursor {
+
+    // Sorts after every real post, so "no cursor" means "start from the top"
+    public static final PostCursor START = new PostCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59), new UUID(-1L, -1L));
+
+    // Same order as "ORDER BY created_at DESC, id DESC" in Postgres
+    // (lowercase UUID strings compare like the raw uuid bytes)
+    public static final Comparator<Post> NEWEST_FIRST = Comparator
+            .comparing(Post::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(p -> p.getId().toString(), Comparator.reverseOrder());
+
+    private LocalDateTime createdAt;
+    private UUID id;
+
+    public static PostCursor of(Post post) {
+        return new PostCursor(post.getCreatedAt(), post.getId());
+    }
+
+    public static PostCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return START;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new PostCursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // True when the post lies strictly after this position in newest-first order
+    public boolean comesBefore(Post post) {
+        int cmp = post.getCreatedAt().compareTo(createdAt);
+        return cmp < 0 || (cmp == 0 && post.getId().toString().compareTo(id.toString()) < 0);
+    }
+}
@@ -1,6 +1,8 @@
 package com.blog._1.dto.post;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -10,8 +12,10 @@ import com.blog._1.models.Hashtag;
 import com.blog._1.models.Post;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class PostResponse implements Serializable {
     private UUID id;
     private String title;
@@ -35,7 +39,50 @@ public class PostResponse implements Serializable {
 
     private Set<String> tags;
 
+    // Constructor for JPQL Queries (feed cards): no author bio, it is only shown on the post page
+    public PostResponse(UUID id, String title, String description, String mediaUrl, String mediaType,
+            LocalDateTime createdAt, LocalDateTime updatedAt, long likeCount, long commentCount,
+            UUID authorId, String authorUsername, String authorFirstname, String authorLastname,
+            String authorAvatarUrl) {
+        this(id, title, description, mediaUrl, mediaType, createdAt, updatedAt, likeCount, commentCount,
+                authorId, authorUsername, authorFirstname, authorLastname, authorAvatarUrl, null);
+    }
+
+    // Constructor for JPQL Queries: post and author columns only, tags are loaded separately
+    public PostResponse(UUID id, String title, String description, String mediaUrl, String mediaType,
+            LocalDateTime createdAt, LocalDateTime updatedAt, long likeCount, long commentCount,
+            UUID authorId, String authorUsername, String authorFirstname, String authorLastname,
+            String authorAvatarUrl, String authorBio) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.mediaUrl = mediaUrl;
+        this.mediaType = mediaType;
+        this.createdAt = createdAt != null ? createdAt.toString() : null;
+        this.updatedAt = updatedAt != null ? updatedAt.toString() : null;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+
+        UserPublicProfileDTO authorDto = new UserPublicProfileDTO();
+        authorDto.setId(authorId);
+        authorDto.setUsername(authorUsername);
+        authorDto.setFirstname(authorFirstname);
+        authorDto.setLastname(authorLastname);
+        authorDto.setAvatarUrl(authorAvatarUrl);
+        authorDto.setBio(authorBio);
+        this.author = authorDto;
+
+        this.tags = new HashSet<>();
+    }
+
     public static PostResponse from(Post post) {
+        return from(post, post.getHashtags().stream()
+                .map(Hashtag::getName)
+                .collect(Collectors.toSet()));
+    }
+
+    // Listings pass the tags resolved for the whole page (PostTagLoader), so the lazy collection is never touched
+    public static PostResponse from(Post post, Set<String> tags) {
         PostResponse dto = new PostResponse();
 
         dto.setId(post.getId());
@@ -73,10 +120,32 @@ public class PostResponse implements Serializable {
         dto.setLikedByCurrentUser(false);
         dto.setSavedByCurrentUser(false);
 
-        dto.setTags(post.getHashtags().stream()
-                .map(Hashtag::getName)
-                .collect(Collectors.toSet()));
+        dto.setTags(tags);
 
         return dto;
     }
-}
\ No newline at end of file
+
+    // Shallow copy for per-request enrichment: instances coming out of the
+    // near-cache are shared, so the liked/saved flags must never be set on them.
+    public PostResponse copy() {
+        PostResponse copy = new PostResponse();
+        copyInto(copy);
+        return copy;
+    }
+
+    protected void copyInto(PostResponse target) {
+        target.setId(id);
+        target.setTitle(title);
+        target.setDescription(description);
+        target.setMediaUrl(mediaUrl);
+        target.setMediaType(mediaType);
+        target.setCreatedAt(createdAt);
+        target.setUpdatedAt(updatedAt);
+        target.setAuthor(author);
+        target.setLikeCount(likeCount);
+        target.setCommentCount(commentCount);
+        target.setSavedByCurrentUser(savedByCurrentUser);
+        target.setLikedByCurrentUser(likedByCurrentUser);
+        target.setTags(tags);
+    }
+}
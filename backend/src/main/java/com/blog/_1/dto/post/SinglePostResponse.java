@@ -11,4 +11,19 @@ import com.blog._1.dto.comment.CommentDTO;
 @EqualsAndHashCode(callSuper = true)
 public class SinglePostResponse extends PostResponse {
     private List<CommentDTO> comments = new ArrayList<>();
+
+    public static SinglePostResponse of(PostResponse base, List<CommentDTO> comments) {
+        SinglePostResponse dto = new SinglePostResponse();
+        base.copyInto(dto);
+        dto.setComments(comments);
+        return dto;
+    }
+
+    @Override
+    public SinglePostResponse copy() {
+        SinglePostResponse copy = new SinglePostResponse();
+        copyInto(copy);
+        copy.setComments(comments);
+        return copy;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.blog._1.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class UploadSessionResponse {
+    private UUID postId;
+    private String token; // send back as X-Upload-Token
+    private LocalDateTime expiresAt;
+    private int maxChunksPerRequest;
+}
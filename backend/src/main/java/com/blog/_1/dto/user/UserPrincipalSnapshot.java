@@ -0,0 +1,29 @@
+package com.blog._1.dto.user;
+
+import java.util.UUID;
+
+import com.blog._1.models.Role;
+import com.blog._1.models.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What the auth filter needs about a user, cached under "user_principal"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPrincipalSnapshot {
+    private UUID id;
+    private Role role;
+    private boolean banned;
+
+    // Detached principal carrying only id, role and ban status (no other profile data)
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        user.setBanned(banned);
+        return user;
+    }
+}
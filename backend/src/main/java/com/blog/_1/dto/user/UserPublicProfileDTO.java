@@ -37,4 +37,10 @@ public class UserPublicProfileDTO {
         this.isFollowing = false;
         this.posts = Collections.emptyList();
     }
-}
\ No newline at end of file
+
+    // Shallow copy so per-viewer flags are never written into a shared cached instance
+    public UserPublicProfileDTO copy() {
+        return new UserPublicProfileDTO(id, username, firstname, lastname, bio, avatarUrl,
+                followersCount, followingCount, isFollowing, posts);
+    }
+}
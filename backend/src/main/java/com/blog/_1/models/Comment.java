@@ -9,7 +9,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Entity
 @Table(name = "comments", indexes = {
         @Index(name = "idx_comments_post_id", columnList = "post_id"),
-        @Index(name = "idx_comments_author_id", columnList = "author_id")
+        @Index(name = "idx_comments_author_id", columnList = "author_id"),
+        @Index(name = "idx_comments_created_at", columnList = "created_at")
 })
 @Getter
 @Setter
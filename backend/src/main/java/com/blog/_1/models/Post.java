@@ -2,15 +2,19 @@ package com.blog._1.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.time.LocalDateTime;
 import java.util.*;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Table(name = "posts", indexes = {
         @Index(name = "idx_posts_author_id", columnList = "author_id"),
         @Index(name = "idx_posts_created_at", columnList = "created_at"),
-        @Index(name = "idx_posts_status_created_at", columnList = "status, created_at")
+        @Index(name = "idx_posts_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_posts_author_status_created_at", columnList = "author_id, status, created_at")
 })
 @Getter
 @Setter
@@ -35,6 +39,9 @@ public class Post extends BaseEntity {
     @Column(nullable = false)
     private PostStatus status = PostStatus.DRAFT;
 
+    // Set on first publication (finalize); drafts can be created long before
+    private LocalDateTime publishedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     @JsonIgnore
@@ -62,7 +69,9 @@ public class Post extends BaseEntity {
     @JsonIgnore
     private List<Notification> notifications = new ArrayList<>();
 
+    // Safety net for entity paths that still touch the collection: listings use PostTagLoader
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(name = "post_hashtags", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "hashtag_id"))
     @JsonIgnore
     private Set<Hashtag> hashtags = new HashSet<>();
@@ -0,0 +1,49 @@
+package com.blog._1.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Compacted body of a published post: every content chunk deflated as its
+ * own frame and concatenated into {@code data}. {@code frameOffsets} holds
+ * chunkCount + 1 big-endian ints; frame i spans [offsets[i], offsets[i + 1]).
+ *
+ * Read and written through JDBC by PostBodyService, the entity only owns the schema.
+ */
+@Entity
+@Table(name = "post_bodies")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostBody {
+
+    @Id
+    @Column(name = "post_id")
+    private UUID postId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Post post;
+
+    @Column(name = "chunk_count", nullable = false)
+    private int chunkCount;
+
+    @Column(name = "raw_size", nullable = false)
+    private long rawSize;
+
+    @Column(name = "frame_offsets", nullable = false)
+    private byte[] frameOffsets;
+
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+}
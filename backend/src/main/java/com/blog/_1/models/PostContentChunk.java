@@ -9,9 +9,9 @@ import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "post_content_chunks", indexes = {
-        @Index(name = "idx_content_chunks_post_id", columnList = "post_id"),
-        @Index(name = "idx_content_chunks_post_chunk_index", columnList = "post_id, chunk_index")
+@Table(name = "post_content_chunks", uniqueConstraints = {
+        // Upsert target for idempotent uploads; also serves lookups by post_id alone
+        @UniqueConstraint(name = "uk_content_chunks_post_chunk_index", columnNames = { "post_id", "chunk_index" })
 })
 @Getter
 @Setter
@@ -12,7 +12,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 }, indexes = {
                 @Index(name = "idx_post_likes_post_id", columnList = "post_id"),
                 @Index(name = "idx_post_likes_user_id", columnList = "user_id"),
-                @Index(name = "idx_post_likes_user_post", columnList = "user_id, post_id")
+                @Index(name = "idx_post_likes_user_post", columnList = "user_id, post_id"),
+                @Index(name = "idx_post_likes_created_at", columnList = "created_at")
 })
 @Getter
 @Setter
@@ -10,7 +10,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Table(name = "reports", indexes = {
         @Index(name = "idx_reports_reporter_id", columnList = "reporter_id"),
         @Index(name = "idx_reports_reported_id", columnList = "reported_id"),
-        @Index(name = "idx_reports_resolved", columnList = "resolved")
+        @Index(name = "idx_reports_resolved", columnList = "resolved"),
+        @Index(name = "idx_reports_created_at", columnList = "created_at")
 })
 @Getter
 @Setter
@@ -12,7 +12,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Entity
 @Table(name = "users", indexes = {
         @Index(name = "idx_users_email", columnList = "email"),
-        @Index(name = "idx_users_username", columnList = "username")
+        @Index(name = "idx_users_username", columnList = "username"),
+        @Index(name = "idx_users_created_at", columnList = "created_at")
 })
 @Getter
 @Setter
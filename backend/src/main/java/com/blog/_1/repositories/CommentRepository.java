@@ -4,16 +4,25 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.blog._1.dto.comment.CommentDTO;
 import com.blog._1.models.Comment;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
 
     // OPTIMIZATION: Added Pageable to support "Load More Comments".
     // Also supports ordering (e.g., sort by createdAt desc in the Pageable object).
+    @EntityGraph(attributePaths = { "author" })
     List<Comment> findByPostId(UUID postId, Pageable pageable);
 
+    // Read model of the single post view: one query for the comments and their authors
+    @Query("SELECT new com.blog._1.dto.comment.CommentDTO(c.id, c.text, c.createdAt, a.id, a.username, a.avatarUrl) "
+            + "FROM Comment c LEFT JOIN c.author a WHERE c.post.id = :postId")
+    List<CommentDTO> findDtosByPostId(UUID postId, Pageable pageable);
+
     // Useful addition for UI
     long countByPostId(UUID postId);
 }
\ No newline at end of file
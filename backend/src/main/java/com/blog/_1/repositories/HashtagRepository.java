@@ -3,10 +3,10 @@ package com.blog._1.repositories;
 import com.blog._1.models.Hashtag;
 import com.blog._1.models.PostStatus;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,17 +14,17 @@ import java.util.UUID;
 public interface HashtagRepository extends JpaRepository<Hashtag, UUID> {
     Optional<Hashtag> findByName(String name);
 
-    // --- NEW: Find Top Used Tags ---
-    // We join Post -> Hashtags, filter by PUBLISHED status, group by Tag, and order
-    // by count
-    @Query("SELECT h.name " +
+    List<Hashtag> findByNameIn(Collection<String> names);
+
+    // Full recount, only used to (re)build the Redis leaderboard (see HashtagLeaderboardService)
+    @Query("SELECT h.name, COUNT(p) " +
             "FROM Post p " +
             "JOIN p.hashtags h " +
             "WHERE p.status = :status " +
-            "GROUP BY h.id, h.name " +
-            "ORDER BY COUNT(p) DESC")
-    List<String> findTopHashtags(PostStatus status, Pageable pageable);
+            "GROUP BY h.name")
+    List<Object[]> countPostsPerHashtag(PostStatus status);
 
-    @Query("SELECT h.name FROM Hashtag h WHERE h.name LIKE LOWER(CONCAT(:query, '%'))")
-    List<String> searchByName(String query, Pageable pageable);
+    // Loads the autocomplete index (see HashtagPrefixIndex)
+    @Query("SELECT h.name FROM Hashtag h")
+    List<String> findAllNames();
 }
\ No newline at end of file
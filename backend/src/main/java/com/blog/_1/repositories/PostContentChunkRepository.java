@@ -19,6 +19,9 @@ public interface PostContentChunkRepository extends JpaRepository<PostContentChu
 
     long countByPostId(UUID postId);
 
+    @Query("SELECT c.chunkIndex FROM PostContentChunk c WHERE c.post.id = :postId")
+    List<Integer> findChunkIndicesByPostId(UUID postId);
+
     // OPTIMIZATION: Bulk delete.
     @Modifying
     @Transactional
@@ -1,20 +1,23 @@
 package com.blog._1.repositories;
 
+import com.blog._1.dto.post.PostResponse;
 import com.blog._1.models.Post;
 import com.blog._1.models.PostStatus;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID>, JpaSpecificationExecutor<Post> {
@@ -35,25 +38,70 @@ public interface PostRepository extends JpaRepository<Post, UUID>, JpaSpecificat
     @EntityGraph(attributePaths = { "author" })
     List<Post> findByAuthorIdAndStatus(UUID authorId, PostStatus status, Pageable pageable);
 
-    @Query("SELECT p.createdAt FROM Post p WHERE p.createdAt > :date")
-    List<LocalDateTime> findAllCreatedDatesAfter(LocalDateTime date);
+    @Query("SELECT p.id FROM Post p JOIN p.hashtags h WHERE h.name = :name AND p.status = :status")
+    Slice<UUID> findIdSliceByHashtagAndStatus(String name, PostStatus status, Pageable pageable);
 
-    @EntityGraph(attributePaths = { "author" })
-    Page<Post> findByHashtags_NameAndStatus(String name, PostStatus status, Pageable pageable);
+    long countByHashtags_NameAndStatus(String name, PostStatus status);
+
+    @Query("SELECT p.id FROM Post p WHERE p.author.id = :authorId AND p.status = :status ORDER BY p.createdAt DESC")
+    List<UUID> findIdsByAuthorIdAndStatus(UUID authorId, PostStatus status, Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.id IN :ids AND p.status = :status")
+    List<Post> findWithAuthorByIdInAndStatus(Collection<UUID> ids, PostStatus status);
+
+    // KEYSET: "createdAt <= :createdAt" keeps the seek on idx_posts_status_created_at,
+    // the OR only breaks ties between posts created in the same instant.
+    @Query("SELECT p FROM Post p JOIN FETCH p.author " +
+            "WHERE p.author.id IN :authorIds AND p.status = :status " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByAuthorIdInAfterCursor(Collection<UUID> authorIds, PostStatus status,
+            LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author " +
+            "WHERE p.status = :status " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByStatusAfterCursor(PostStatus status, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author " +
+            "WHERE p.author.id = :authorId AND p.status = :status " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByAuthorIdAndStatusAfterCursor(UUID authorId, PostStatus status,
+            LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author JOIN p.hashtags h " +
+            "WHERE h.name = :name AND p.status = :status " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByHashtagAndStatusAfterCursor(String name, PostStatus status,
+            LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    // Read model of feed cards: post + author columns straight into the DTO, tags loaded per page
+    @Query("SELECT new com.blog._1.dto.post.PostResponse(p.id, p.title, p.description, p.mediaUrl, p.mediaType, "
+            + "p.createdAt, p.updatedAt, p.likeCount, p.commentCount, "
+            + "a.id, a.username, a.firstname, a.lastname, a.avatarUrl) "
+            + "FROM Post p JOIN p.author a WHERE p.id IN :ids AND p.status = :status")
+    List<PostResponse> findCardsByIdInAndStatus(Collection<UUID> ids, PostStatus status);
+
+    // Page-level tag loading (see PostTagLoader)
+    @Query("SELECT p.id, h.name FROM Post p JOIN p.hashtags h WHERE p.id IN :ids")
+    List<Object[]> findTagNamesByPostIdIn(Collection<UUID> ids);
 
-    @Modifying
-    @Query("UPDATE Post p SET p.likeCount = p.likeCount + 1 WHERE p.id = :postId")
-    void incrementLikeCount(UUID postId);
+    // Read model of the single post view (no entity, no lazy proxies)
+    @Query("SELECT new com.blog._1.dto.post.PostResponse(p.id, p.title, p.description, p.mediaUrl, p.mediaType, "
+            + "p.createdAt, p.updatedAt, p.likeCount, p.commentCount, "
+            + "a.id, a.username, a.firstname, a.lastname, a.avatarUrl, a.bio) "
+            + "FROM Post p JOIN p.author a WHERE p.id = :id")
+    Optional<PostResponse> findResponseById(UUID id);
 
-    @Modifying
-    @Query("UPDATE Post p SET p.likeCount = CASE WHEN p.likeCount > 0 THEN p.likeCount - 1 ELSE 0 END WHERE p.id = :postId")
-    void decrementLikeCount(UUID postId);
+    @Query("SELECT p.id, p.likeCount, p.commentCount FROM Post p WHERE p.id IN :ids")
+    List<Object[]> findCountersByIdIn(Collection<UUID> ids);
 
-    @Modifying
-    @Query("UPDATE Post p SET p.commentCount = p.commentCount + 1 WHERE p.id = :postId")
-    void incrementCommentCount(UUID postId);
+    // Slices fetch size + 1 rows and never run a COUNT (see PageCountService)
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status")
+    Slice<UUID> findIdSliceByStatus(PostStatus status, Pageable pageable);
 
-    @Modifying
-    @Query("UPDATE Post p SET p.commentCount = CASE WHEN p.commentCount > 0 THEN p.commentCount - 1 ELSE 0 END WHERE p.id = :postId")
-    void decrementCommentCount(UUID postId);
+    long countByStatus(PostStatus status);
 }
\ No newline at end of file
@@ -25,6 +25,15 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
 
     List<Subscription> findByFollowingId(UUID followingId, Pageable pageable);
 
+    @Query("SELECT s.follower.id FROM Subscription s WHERE s.following.id = :followingId ORDER BY s.follower.id")
+    List<UUID> findFollowerIdsByFollowingId(@Param("followingId") UUID followingId, Pageable pageable);
+
+    // Keyset continuation of the query above (follower id > last seen)
+    @Query("SELECT s.follower.id FROM Subscription s WHERE s.following.id = :followingId " +
+            "AND s.follower.id > :afterId ORDER BY s.follower.id")
+    List<UUID> findFollowerIdsByFollowingIdAfter(@Param("followingId") UUID followingId,
+            @Param("afterId") UUID afterId, Pageable pageable);
+
     // useful for counters (much faster than fetching the list to count size)
     long countByFollowerId(UUID followerId);
 
@@ -7,11 +7,13 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.blog._1.dto.user.UserPrincipalSnapshot;
 import com.blog._1.dto.user.UserPublicProfileDTO;
 import com.blog._1.models.User;
 
@@ -24,6 +26,13 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
 
     Optional<User> findByUsername(String username);
 
+    // Authentication snapshot: three columns instead of the whole row
+    @Query("SELECT new com.blog._1.dto.user.UserPrincipalSnapshot(u.id, u.role, u.banned) FROM User u WHERE u.id = :id")
+    Optional<UserPrincipalSnapshot> findPrincipalSnapshot(@Param("id") UUID id);
+
+    // Whole-table listing without the COUNT query (see PageCountService)
+    Slice<User> findAllBy(Pageable pageable);
+
     // Existence checks are efficient, keep them.
     boolean existsByEmail(String email);
 
@@ -63,7 +72,4 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
                 FROM User u
             """)
     Page<UserPublicProfileDTO> findAllUserSummaries(Pageable pageable);
-
-    @Query("SELECT u.createdAt FROM User u WHERE u.createdAt > :date")
-    List<LocalDateTime> findAllCreatedDatesAfter(LocalDateTime date);
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package com.blog._1.security;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,7 +12,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.blog._1.models.User;
+import com.blog._1.dto.user.UserPrincipalSnapshot;
 import com.blog._1.services.UserService;
 
 import jakarta.servlet.FilterChain;
@@ -55,33 +54,26 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-            var claims = jwtService.parseClaims(token);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            final UUID userId = UUID.fromString(claims.getSubject());
-            final String role = claims.get("role", String.class);
-
-            if (userId != null && role != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                if (!jwtService.isValidToken(token)) {
-                    writeJsonError(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token");
-                    return;
-                }
-
-                User userDetails = userService.getUserById(userId);
+                // Memoized signature check, then a cached (id, role, banned) snapshot: no query per request
+                JwtService.AccessToken accessToken = jwtService.verifyAccessToken(token);
+                UserPrincipalSnapshot principal = userService.getPrincipalSnapshot(accessToken.userId());
 
                 // ---------------------------
                 // BLOCK BANNED USERS
                 // ---------------------------
-                if (userDetails.isBanned()) {
+                if (principal.isBanned()) {
                     writeJsonError(response, HttpServletResponse.SC_FORBIDDEN, "Your account has been banned");
                     return;
                 }
 
+                // Role comes from the snapshot, so a role change applies without a new token
                 Collection<? extends GrantedAuthority> authorities = List
-                        .of(new SimpleGrantedAuthority("ROLE_" + role));
+                        .of(new SimpleGrantedAuthority("ROLE_" + principal.getRole()));
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-                        null, authorities);
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal.toUser(), null, authorities);
 
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request));
@@ -1,14 +1,26 @@
 package com.blog._1.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 // import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.blog._1.models.User;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -20,6 +32,9 @@ public class JwtService {
     private final Key secretKey = Keys.hmacShaKeyFor(secret.getBytes());
     private final long EXPIRATION = 1000 * 60 * 60 * 24;
 
+    // Built once: key material and parser configuration never change at runtime
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+
     public String generateToken(User user) {
         return Jwts.builder()
                 .setSubject(user.getId().toString())
@@ -31,34 +46,90 @@ public class JwtService {
                 .compact();
     }
 
-    public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+    // --- Verified login tokens ---
+    // Signature checks are memoized per token (keyed by its SHA-256) until the token expires.
+
+    private static final long VERIFIED_TOKENS_MAX_SIZE = 100_000;
+
+    public record AccessToken(UUID userId, long expiresAtMillis) {
+    }
+
+    private final Cache<String, AccessToken> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKENS_MAX_SIZE)
+            .expireAfter(new Expiry<String, AccessToken>() {
+                @Override
+                public long expireAfterCreate(String key, AccessToken value, long currentTime) {
+                    long millis = Math.max(value.expiresAtMillis() - System.currentTimeMillis(), 0);
+                    return TimeUnit.MILLISECONDS.toNanos(millis);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, AccessToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, AccessToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    // Login token only (upload-session tokens carry no role); throws JwtException when invalid
+    public AccessToken verifyAccessToken(String token) {
+        String key = sha256(token);
+        AccessToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis())
+            return cached;
+
+        var claims = parseClaims(token);
+        if (claims.getSubject() == null || claims.get("role") == null || claims.getExpiration() == null)
+            throw new JwtException("Not a login token");
+
+        AccessToken verified = new AccessToken(UUID.fromString(claims.getSubject()), claims.getExpiration().getTime());
+        verifiedTokens.put(key, verified);
+        return verified;
     }
 
-    public UUID extractUserId(String token) {
-        return UUID.fromString(
-                Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody().getSubject());
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // --- Chunk upload sessions ---
+    // No "role" claim: the auth filter never accepts these as login tokens.
+
+    private static final String UPLOAD_SCOPE = "post-upload";
+
+    public String generateUploadToken(UUID postId, UUID userId, Date expiresAt) {
+        return Jwts.builder()
+                .setSubject(userId.toString())
+                .claim("scope", UPLOAD_SCOPE)
+                .claim("postId", postId.toString())
+                .setIssuedAt(new Date())
+                .setExpiration(expiresAt)
+                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .compact();
     }
 
-    public boolean isValidToken(String token) {
+    // Signature/expiry check only, no database access
+    public boolean isValidUploadToken(String token, UUID postId, UUID userId) {
         try {
-            extractUserId(token);
-            return true;
+            var claims = parseClaims(token);
+            return UPLOAD_SCOPE.equals(claims.get("scope", String.class))
+                    && postId.toString().equals(claims.get("postId", String.class))
+                    && userId.toString().equals(claims.getSubject());
         } catch (Exception e) {
             return false;
         }
     }
 
-    public io.jsonwebtoken.Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey) // your existing secretKey
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Single signature check + claim decode; the shared parser is immutable and thread-safe
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 }
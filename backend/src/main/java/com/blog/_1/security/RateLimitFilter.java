@@ -1,56 +1,73 @@
-// package com.letsplay.shop.security;
+package com.blog._1.security;
 
-// import java.io.IOException;
-// import java.time.Instant;
-// import java.util.Map;
-// import java.util.concurrent.ConcurrentHashMap;
-// import java.util.concurrent.atomic.AtomicInteger;
+import java.io.IOException;
 
-// import org.springframework.stereotype.Component;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
 
-// import jakarta.servlet.*;
-// import jakarta.servlet.http.HttpServletRequest;
-// import jakarta.servlet.http.HttpServletResponse;
+import com.blog._1.models.User;
 
-// @Component
-// public class RateLimitFilter implements Filter {
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
-//     private static final int MAX_REQUESTS_PER_ITRVL = 20; // just to test needs to be bigger XD
-//     private static final long INTERVAL = 60 * 1000;
+import lombok.RequiredArgsConstructor;
 
-//     private static class RateLimitInfo {
-//         AtomicInteger counter = new AtomicInteger(0);
-//         long windowStart = Instant.now().toEpochMilli();
-//     }
+// Runs after JwtAuthFilter: authenticated clients are limited per user, anonymous ones per IP.
+// Invalid tokens never get here; TokenRateLimitFilter caps them per IP before verification.
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
 
-//     private final Map<String, RateLimitInfo> ipLimits = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
 
-//     @Override
-//     public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
-//             throws IOException, ServletException {
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
 
-//         HttpServletRequest request = (HttpServletRequest) req;
-//         HttpServletResponse response = (HttpServletResponse) res;
+        long waitMillis = rateLimiter.tryAcquire(policyFor(request), clientKey(request));
 
-//         String ip = request.getRemoteAddr();
-//         RateLimitInfo info = ipLimits.computeIfAbsent(ip, k -> new RateLimitInfo());
+        if (waitMillis > 0) {
+            writeTooManyRequests(response, waitMillis);
+            return;
+        }
 
-//         long now = Instant.now().toEpochMilli();
+        filterChain.doFilter(request, response);
+    }
 
-//         synchronized (info) {
-//             if (now - info.windowStart > INTERVAL) {
-//                 info.counter.set(0);
-//                 info.windowStart = now;
-//             }
+    static void writeTooManyRequests(HttpServletResponse response, long waitMillis) throws IOException {
+        long retryAfterSeconds = (waitMillis + 999) / 1000;
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\": \"Too many requests, retry in " + retryAfterSeconds + "s\"}");
+    }
 
-//             if (info.counter.incrementAndGet() > MAX_REQUESTS_PER_ITRVL) {
-//                 response.setStatus(404); // need to now what is the too many request status code
-//                 response.getWriter().write("Rate limit exeeded for IP: " + ip);
-//                 return;
-//             }
-//         }
+    private static RateLimiter.Policy policyFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String contentType = request.getContentType();
 
-//         chain.doFilter(request, response);
-//     }
+        if (path.startsWith("/api/auth/"))
+            return RateLimiter.Policy.AUTH;
+        if ((contentType != null && contentType.startsWith("multipart/"))
+                || (path.startsWith("/api/posts/") && (path.endsWith("/chunk") || path.endsWith("/chunks"))))
+            return RateLimiter.Policy.UPLOAD;
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))
+            return RateLimiter.Policy.READ;
+        return RateLimiter.Policy.WRITE;
+    }
 
-// }
+    private static String clientKey(HttpServletRequest request) {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user)
+            return "user:" + user.getId();
+        // Proxies are resolved by server.forward-headers-strategy, never by trusting headers here
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,159 @@
+package com.blog._1.security;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token buckets per client (user id, or IP for anonymous requests) and policy.
+ *
+ * Buckets use GCRA: a single "theoretical arrival time" per bucket, advanced
+ * by one emission interval per accepted request and updated with a CAS, so
+ * no lock is ever taken. A bucket whose arrival time is in the past is full,
+ * which is why idle buckets can simply be dropped (expire-after-access).
+ *
+ * With rate-limit.redis-enabled the same algorithm runs in a Lua script, so
+ * every node shares the limits; on Redis errors the local buckets are used.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    public enum Policy {
+        AUTH, UPLOAD, READ, WRITE, TOKEN
+    }
+
+    // Returns 0 when accepted, otherwise the wait in milliseconds
+    private static final DefaultRedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') "
+                    + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+                    + "local interval = tonumber(ARGV[1]) "
+                    + "local tat = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "if tat < now then tat = now end "
+                    + "local next = tat + interval "
+                    + "local wait = next - now - tonumber(ARGV[2]) "
+                    + "if wait > 0 then return wait end "
+                    + "redis.call('SET', KEYS[1], next, 'PX', next - now) "
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.redis-enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${rate-limit.auth.capacity:10}")
+    private int authCapacity;
+
+    @Value("${rate-limit.auth.per-minute:10}")
+    private int authPerMinute;
+
+    @Value("${rate-limit.upload.capacity:60}")
+    private int uploadCapacity;
+
+    @Value("${rate-limit.upload.per-minute:120}")
+    private int uploadPerMinute;
+
+    @Value("${rate-limit.read.capacity:200}")
+    private int readCapacity;
+
+    @Value("${rate-limit.read.per-minute:1200}")
+    private int readPerMinute;
+
+    @Value("${rate-limit.write.capacity:60}")
+    private int writeCapacity;
+
+    @Value("${rate-limit.write.per-minute:240}")
+    private int writePerMinute;
+
+    // Token verifications per IP, checked before the signature so garbage tokens are throttled too
+    @Value("${rate-limit.token.capacity:300}")
+    private int tokenCapacity;
+
+    @Value("${rate-limit.token.per-minute:1800}")
+    private int tokenPerMinute;
+
+    private record Limits(long intervalNanos, long burstNanos) {
+        static Limits of(int capacity, int perMinute) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+            return new Limits(interval, interval * Math.max(capacity, 1));
+        }
+    }
+
+    private final Map<Policy, Limits> limits = new EnumMap<>(Policy.class);
+    private final Map<Policy, Cache<String, AtomicLong>> buckets = new EnumMap<>(Policy.class);
+
+    @PostConstruct
+    void init() {
+        limits.put(Policy.AUTH, Limits.of(authCapacity, authPerMinute));
+        limits.put(Policy.UPLOAD, Limits.of(uploadCapacity, uploadPerMinute));
+        limits.put(Policy.READ, Limits.of(readCapacity, readPerMinute));
+        limits.put(Policy.WRITE, Limits.of(writeCapacity, writePerMinute));
+        limits.put(Policy.TOKEN, Limits.of(tokenCapacity, tokenPerMinute));
+
+        // After burstNanos without traffic a bucket is full again, i.e. indistinguishable from a new one
+        limits.forEach((policy, l) -> buckets.put(policy, Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(l.burstNanos()))
+                .build()));
+    }
+
+    /**
+     * Takes one token from the client's bucket.
+     * Returns 0 when the request may proceed, otherwise the milliseconds until it would.
+     */
+    public long tryAcquire(Policy policy, String clientKey) {
+        if (!enabled)
+            return 0;
+
+        Limits l = limits.get(policy);
+        if (redisEnabled) {
+            try {
+                Long wait = redisTemplate.execute(ACQUIRE,
+                        List.of("ratelimit:" + policy.name().toLowerCase() + ":" + clientKey),
+                        String.valueOf(Math.max(TimeUnit.NANOSECONDS.toMillis(l.intervalNanos()), 1)),
+                        String.valueOf(TimeUnit.NANOSECONDS.toMillis(l.burstNanos())));
+                if (wait != null)
+                    return wait;
+            } catch (RuntimeException e) {
+                log.debug("Redis rate limiter unavailable, using local buckets", e);
+            }
+        }
+        return acquireLocal(l, buckets.get(policy).get(clientKey, k -> new AtomicLong(System.nanoTime())));
+    }
+
+    private static long acquireLocal(Limits l, AtomicLong tat) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long next = Math.max(current, now) + l.intervalNanos();
+            long wait = next - now - l.burstNanos();
+            if (wait > 0)
+                return Math.max(TimeUnit.NANOSECONDS.toMillis(wait), 1);
+            if (tat.compareAndSet(current, next))
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.blog._1.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.RequiredArgsConstructor;
+
+// Runs before JwtAuthFilter: every request carrying a token costs a signature check, and a
+// forged one is answered 401 without reaching RateLimitFilter, so token bearers are capped per IP first
+@RequiredArgsConstructor
+public class TokenRateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        if (carriesToken(request)) {
+            long waitMillis = rateLimiter.tryAcquire(RateLimiter.Policy.TOKEN, "ip:" + request.getRemoteAddr());
+            if (waitMillis > 0) {
+                RateLimitFilter.writeTooManyRequests(response, waitMillis);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Same token sources as JwtAuthFilter: Bearer header, or ?token= for SSE
+    private static boolean carriesToken(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return (authHeader != null && authHeader.startsWith("Bearer ")) || request.getParameter("token") != null;
+    }
+}
@@ -1,11 +1,14 @@
 package com.blog._1.services;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.blog._1.dto.user.UserLoginRequest;
@@ -15,6 +18,7 @@ import com.blog._1.models.User;
 import com.blog._1.repositories.UserRepository;
 import com.blog._1.security.JwtService;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -22,10 +26,22 @@ import lombok.RequiredArgsConstructor;
 public class AuthenticationService {
 
     private final UserRepository userRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
+    private final PlatformTransactionManager transactionManager;
 
-    public Map<String, Object> login(UserLoginRequest request) {
+    // What follows a hash (user insert, JWT signing) must not occupy the small CPU-bound
+    // hashing pool: a slow database would otherwise turn every login into a 503
+    private final ExecutorService continuations = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    void shutdown() {
+        continuations.close();
+    }
+
+    // Lookups run on the caller, BCrypt on the hashing pool, the rest on a virtual thread;
+    // the servlet thread is released meanwhile
+    public CompletableFuture<Map<String, Object>> login(UserLoginRequest request) {
         String identifier = request.getEmail(); // Could be email OR username --CHANGED LATER FOR BETTER PERFORMANCE
                                                 // USING ONLY EMAIL FOR THE MOMENT
 
@@ -34,28 +50,30 @@ public class AuthenticationService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
 
         // 2. Check Password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
-        }
-
-        // 3. SECURITY: Check if Banned
-        if (user.isBanned()) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is banned. Contact admin.");
-        }
-
-        String token = jwtService.generateToken(user);
-
-        return Map.of(
-                "token", token,
-                "isCompleted", user.isCompletedAccount(),
-                "role", user.getRole(),
-                "id", user.getId() // Useful for frontend routing
-        );
+        return passwordHashingService.matchesAsync(request.getPassword(), user.getPassword())
+                .thenApplyAsync(matches -> {
+                    if (!matches) {
+                        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+                    }
+
+                    // 3. SECURITY: Check if Banned
+                    if (user.isBanned()) {
+                        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is banned. Contact admin.");
+                    }
+
+                    String token = jwtService.generateToken(user);
+
+                    return Map.of(
+                            "token", token,
+                            "isCompleted", user.isCompletedAccount(),
+                            "role", user.getRole(),
+                            "id", user.getId() // Useful for frontend routing
+                    );
+                }, continuations);
     }
 
-    @Transactional
-    public Map<String, Object> register(UserRegisterRequest request) {
-        // 1. Fail Fast - Check Duplicates
+    public CompletableFuture<Map<String, Object>> register(UserRegisterRequest request) {
+        // 1. Fail Fast - Check Duplicates (before paying for a hash)
         if (userRepo.existsByEmail(request.getEmail())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already taken");
         }
@@ -63,22 +81,27 @@ public class AuthenticationService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Username already taken");
         }
 
-        // 2. Create User
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(Role.USER);
-        user.setCompletedAccount(false);
-        user.setBanned(false);
-
-        userRepo.save(user);
-
-        // 3. Generate Token immediately so they don't have to login again
-        return Map.of(
-                "token", jwtService.generateToken(user),
-                "isCompleted", user.isCompletedAccount(),
-                "role", user.getRole(),
-                "id", user.getId());
+        return passwordHashingService.encodeAsync(request.getPassword())
+                .thenApplyAsync(hash -> {
+                    // 2. Create User (a concurrent duplicate fails on the unique constraint -> 409)
+                    User user = new User();
+                    user.setUsername(request.getUsername());
+                    user.setEmail(request.getEmail());
+                    user.setPassword(hash);
+                    user.setRole(Role.USER);
+                    user.setCompletedAccount(false);
+                    user.setBanned(false);
+
+                    // Not a proxied call: the transaction is opened here, after hashing,
+                    // so no connection is held while BCrypt runs
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepo.save(user));
+
+                    // 3. Generate Token immediately so they don't have to login again
+                    return Map.of(
+                            "token", jwtService.generateToken(user),
+                            "isCompleted", user.isCompletedAccount(),
+                            "role", user.getRole(),
+                            "id", user.getId());
+                }, continuations);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.post.ChunkBatchRequest;
+import com.blog._1.dto.post.UploadSessionResponse;
+import com.blog._1.models.Post;
+import com.blog._1.repositories.PostContentChunkRepository;
+import com.blog._1.repositories.PostRepository;
+import com.blog._1.security.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Chunked post body upload.
+ *
+ * The author is checked once when the upload session is opened; every
+ * following batch only verifies the signed session token. Chunks are
+ * upserted on (post_id, chunk_index), so retries and parallel uploads are
+ * idempotent, and finalize checks the exact set of received indices.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChunkUploadService {
+
+    public static final int MAX_CHUNKS_PER_REQUEST = 50;
+
+    private static final String UPSERT_SQL = "INSERT INTO post_content_chunks (id, content, chunk_index, post_id) "
+            + "VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (post_id, chunk_index) DO UPDATE SET content = EXCLUDED.content";
+
+    // A replaced chunk keeps the chunk count, so the content ETag (PostContentService) needs this
+    private static final String TOUCH_SQL = "UPDATE posts SET updated_at = now() WHERE id = ?";
+
+    private static final int MAX_REPORTED_MISSING = 20;
+
+    private final PostRepository postRepository;
+    private final PostContentChunkRepository chunkRepository;
+    private final PostBodyService postBodyService;
+    private final JwtService jwtService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${upload.session-ttl-minutes:120}")
+    private long sessionTtlMinutes;
+
+    @Transactional
+    public UploadSessionResponse openSession(UUID postId, UUID userId) {
+        Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
+        if (!post.getAuthor().getId().equals(userId))
+            throw new RuntimeException("Unauthorized");
+
+        // Editing a published post: back to the chunked layout until the next finalize
+        postBodyService.expand(postId);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(sessionTtlMinutes);
+        String token = jwtService.generateUploadToken(postId, userId,
+                Date.from(expiresAt.atZone(ZoneId.systemDefault()).toInstant()));
+
+        return new UploadSessionResponse(postId, token, expiresAt, MAX_CHUNKS_PER_REQUEST);
+    }
+
+    public void uploadBatch(UUID postId, String sessionToken, UUID userId, List<ChunkBatchRequest.Item> chunks) {
+        if (sessionToken == null || !jwtService.isValidUploadToken(sessionToken, postId, userId))
+            throw new RuntimeException("Invalid or expired upload session");
+
+        List<Object[]> rows = new ArrayList<>(chunks.size());
+        for (ChunkBatchRequest.Item chunk : chunks) {
+            rows.add(new Object[] { UUID.randomUUID(), chunk.getContent(), chunk.getIndex(), postId });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        jdbcTemplate.update(TOUCH_SQL, postId);
+    }
+
+    // Single chunk, used by the legacy per-chunk endpoint (caller checked the author)
+    public void upsert(UUID postId, int index, String content) {
+        jdbcTemplate.update(UPSERT_SQL, UUID.randomUUID(), content, index, postId);
+        jdbcTemplate.update(TOUCH_SQL, postId);
+    }
+
+    /**
+     * Requires chunks 0..expectedTotal-1 to be present, and nothing else.
+     * A post whose body is already compacted (re-publish) is checked against
+     * its stored chunk count.
+     */
+    public void validateComplete(UUID postId, int expectedTotal) {
+        // Comes straight from the request; a negative count would size the BitSet below
+        if (expectedTotal < 0)
+            throw new RuntimeException("Upload incomplete: invalid chunk count " + expectedTotal);
+
+        List<Integer> indices = chunkRepository.findChunkIndicesByPostId(postId);
+
+        if (indices.isEmpty()) {
+            int stored = postBodyService.index(postId).map(PostBodyService.BodyIndex::chunkCount).orElse(0);
+            if (stored != expectedTotal)
+                throw new RuntimeException("Upload incomplete");
+            return;
+        }
+
+        BitSet received = new BitSet(expectedTotal);
+        for (int index : indices) {
+            if (index >= expectedTotal)
+                throw new RuntimeException("Unexpected chunk index " + index + " (expected " + expectedTotal + " chunks)");
+            received.set(index);
+        }
+
+        if (received.cardinality() != expectedTotal) {
+            List<Integer> missing = new ArrayList<>();
+            for (int i = received.nextClearBit(0); i < expectedTotal && missing.size() < MAX_REPORTED_MISSING;
+                    i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            throw new RuntimeException("Upload incomplete, missing chunks: " + missing);
+        }
+    }
+}
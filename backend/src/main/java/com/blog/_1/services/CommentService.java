@@ -13,7 +13,6 @@ import lombok.RequiredArgsConstructor;
 
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -30,15 +29,14 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final PostCounterService postCounterService;
 
     // Injecting CacheManager for programmatic eviction in the delete method
     private final CacheManager cacheManager;
 
+    // single_post embeds the comment list; feed pages only need the counter
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "single_post", key = "#postId"),
-            @CacheEvict(value = "post_pages", allEntries = true) // Wipes paginated lists so commentCount updates
-    })
+    @CacheEvict(value = "single_post", key = "#postId")
     public CommentResponse create(UUID postId, UUID userId, CommentCreateRequest request) {
         var post = postRepository.getReferenceById(postId);
         var author = userRepository.getReferenceById(userId);
@@ -49,7 +47,7 @@ public class CommentService {
         comment.setAuthor(author);
 
         Comment saved = commentRepository.save(comment);
-        postRepository.incrementCommentCount(postId);
+        postCounterService.adjustComments(postId, 1);
         return mapToResponse(saved);
     }
 
@@ -74,18 +72,13 @@ public class CommentService {
         UUID postId = comment.getPost().getId();
 
         commentRepository.delete(comment);
-        postRepository.decrementCommentCount(postId);
+        postCounterService.adjustComments(postId, -1);
 
         // Programmatically evict the cache since postId is not a method parameter
         var singlePostCache = cacheManager.getCache("single_post");
         if (singlePostCache != null) {
             singlePostCache.evict(postId);
         }
-
-        var pagesCache = cacheManager.getCache("post_pages");
-        if (pagesCache != null) {
-            pagesCache.clear(); // Wipes all entries
-        }
     }
 
     private CommentResponse mapToResponse(Comment saved) {
@@ -0,0 +1,105 @@
+package com.blog._1.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily rollup of activity counts (daily_stats, one row per day), so the
+ * dashboard reads O(days) rows instead of the raw tables.
+ *
+ * Each day is recomputed with index range scans on created_at. The last
+ * days are refreshed every few minutes, and the whole history once a night
+ * so that deletions are eventually reflected in past days too.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyStatsService {
+
+    private static final String ROLLUP_SQL = "INSERT INTO daily_stats (day, users, posts, likes, comments, reports) "
+            + "SELECT d::date, "
+            + "(SELECT COUNT(*) FROM users WHERE created_at >= d AND created_at < d + INTERVAL '1 day'), "
+            + "(SELECT COUNT(*) FROM posts WHERE created_at >= d AND created_at < d + INTERVAL '1 day'), "
+            + "(SELECT COUNT(*) FROM post_likes WHERE created_at >= d AND created_at < d + INTERVAL '1 day'), "
+            + "(SELECT COUNT(*) FROM comments WHERE created_at >= d AND created_at < d + INTERVAL '1 day'), "
+            + "(SELECT COUNT(*) FROM reports WHERE created_at >= d AND created_at < d + INTERVAL '1 day') "
+            + "FROM generate_series(CAST(? AS date), CAST(? AS date), INTERVAL '1 day') AS d "
+            + "ON CONFLICT (day) DO UPDATE SET users = EXCLUDED.users, posts = EXCLUDED.posts, "
+            + "likes = EXCLUDED.likes, comments = EXCLUDED.comments, reports = EXCLUDED.reports";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Today and yesterday: late writes around midnight land in the right day
+    @Value("${stats.rollup.recent-days:2}")
+    private int recentDays;
+
+    public record DailyCounts(LocalDate day, long users, long posts, long likes, long comments, long reports) {
+    }
+
+    public record Totals(long users, long posts) {
+    }
+
+    // --- MAINTENANCE ---
+
+    // Fills the days missed while the application was down (or all of them on first start)
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        LocalDate lastDay = jdbcTemplate.queryForObject("SELECT MAX(day) FROM daily_stats", LocalDate.class);
+        LocalDate from = lastDay != null ? lastDay.minusDays(1) : firstActivityDay();
+        refresh(from, LocalDate.now());
+    }
+
+    @Scheduled(fixedDelayString = "${stats.rollup.interval-ms:300000}", initialDelayString = "${stats.rollup.interval-ms:300000}")
+    public void refreshRecent() {
+        LocalDate today = LocalDate.now();
+        refresh(today.minusDays(recentDays - 1L), today);
+    }
+
+    @Scheduled(cron = "${stats.rollup.rebuild-cron:0 15 4 * * *}")
+    public void rebuild() {
+        refresh(firstActivityDay(), LocalDate.now());
+    }
+
+    public void refresh(LocalDate from, LocalDate to) {
+        if (from.isAfter(to))
+            return;
+        int days = jdbcTemplate.update(ROLLUP_SQL, Date.valueOf(from), Date.valueOf(to));
+        log.debug("Daily stats refreshed for {} days ({} .. {})", days, from, to);
+    }
+
+    // --- READ PATH ---
+
+    public List<DailyCounts> range(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT day, users, posts, likes, comments, reports FROM daily_stats "
+                        + "WHERE day BETWEEN ? AND ? ORDER BY day",
+                (rs, i) -> new DailyCounts(rs.getDate("day").toLocalDate(), rs.getLong("users"),
+                        rs.getLong("posts"), rs.getLong("likes"), rs.getLong("comments"), rs.getLong("reports")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public Totals totals() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(users), 0), COALESCE(SUM(posts), 0) FROM daily_stats",
+                (rs, i) -> new Totals(rs.getLong(1), rs.getLong(2)));
+    }
+
+    // --- HELPERS ---
+
+    private LocalDate firstActivityDay() {
+        LocalDate first = jdbcTemplate.queryForObject(
+                "SELECT CAST(LEAST((SELECT MIN(created_at) FROM users), (SELECT MIN(created_at) FROM posts)) AS date)",
+                LocalDate.class);
+        return first != null ? first : LocalDate.now();
+    }
+}
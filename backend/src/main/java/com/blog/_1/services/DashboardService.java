@@ -2,67 +2,62 @@ package com.blog._1.services;
 
 import com.blog._1.dto.admin.ChartDataPoint;
 import com.blog._1.dto.admin.DashboardStatsDTO;
-import com.blog._1.repositories.PostRepository;
 import com.blog._1.repositories.ReportRepository;
-import com.blog._1.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final UserRepository userRepository;
-    private final PostRepository postRepository;
+    private static final DateTimeFormatter LABEL_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
+
     private final ReportRepository reportRepository;
+    private final DailyStatsService dailyStatsService;
 
-    @Transactional(readOnly = true)
-    public DashboardStatsDTO getDashboardStats() {
-        // 1. Basic Counts (Fast SQL counts)
-        long totalUsers = userRepository.count();
-        long totalPosts = postRepository.count();
-        long pendingReports = reportRepository.countByResolvedFalse();
+    @Value("${stats.dashboard.max-days:365}")
+    private int maxDays;
 
-        // 2. Chart Data
-        // Optimization: In a highly scaled app, we would use a custom JPQL query
-        // with "GROUP BY" to fetch only counts. For now, we optimized the Controller
-        // by moving this logic here and using 'readOnly=true' transaction.
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+    // Reads the daily rollup: cost grows with the number of days, not with the size of the tables
+    public DashboardStatsDTO getDashboardStats(int days) {
+        int range = Math.min(Math.max(days, 1), maxDays);
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(range - 1L);
 
-        // Ideally: Create a repository method: List<ChartDataProjection>
-        // findDailyCounts(LocalDateTime since);
-        List<LocalDateTime> userDates = userRepository.findAllCreatedDatesAfter(sevenDaysAgo);
-        List<LocalDateTime> postDates = postRepository.findAllCreatedDatesAfter(sevenDaysAgo);
+        Map<LocalDate, DailyStatsService.DailyCounts> byDay = dailyStatsService.range(from, to).stream()
+                .collect(Collectors.toMap(DailyStatsService.DailyCounts::day, c -> c));
+        DailyStatsService.Totals totals = dailyStatsService.totals();
 
         return DashboardStatsDTO.builder()
-                .totalUsers(totalUsers)
-                .totalPosts(totalPosts)
-                .pendingReports(pendingReports)
-                .userGrowth(processChartData(userDates))
-                .postGrowth(processChartData(postDates))
+                .days(range)
+                .totalUsers(totals.users())
+                .totalPosts(totals.posts())
+                .pendingReports(reportRepository.countByResolvedFalse())
+                .userGrowth(series(byDay, from, to, DailyStatsService.DailyCounts::users))
+                .postGrowth(series(byDay, from, to, DailyStatsService.DailyCounts::posts))
+                .likeActivity(series(byDay, from, to, DailyStatsService.DailyCounts::likes))
+                .commentActivity(series(byDay, from, to, DailyStatsService.DailyCounts::comments))
+                .reportActivity(series(byDay, from, to, DailyStatsService.DailyCounts::reports))
                 .build();
     }
 
-    private List<ChartDataPoint> processChartData(List<LocalDateTime> timestamps) {
-        Map<LocalDate, Long> countsByDay = timestamps.stream()
-                .collect(Collectors.groupingBy(LocalDateTime::toLocalDate, Collectors.counting()));
-
+    // One point per day, zero for days without a rollup row
+    private static List<ChartDataPoint> series(Map<LocalDate, DailyStatsService.DailyCounts> byDay,
+            LocalDate from, LocalDate to, ToLongFunction<DailyStatsService.DailyCounts> metric) {
         List<ChartDataPoint> points = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            points.add(new ChartDataPoint(date.format(formatter), countsByDay.getOrDefault(date, 0L)));
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DailyStatsService.DailyCounts counts = byDay.get(date);
+            points.add(new ChartDataPoint(date.format(LABEL_FORMAT), counts == null ? 0 : metric.applyAsLong(counts)));
         }
         return points;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package com.blog._1.services;
+
+import com.blog._1.models.PostStatus;
+import com.blog._1.repositories.HashtagRepository;
+import com.blog._1.utils.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashtag leaderboards kept in Redis sorted sets, so reads are a single
+ * ZREVRANGE (O(log n + k)) instead of a GROUP BY over every published post.
+ *
+ * - "hashtags:popular": number of published posts per tag, updated on
+ * publish / edit / delete and rebuilt from the database nightly.
+ * - "hashtags:bucket:{epochHour}": tag uses published during that hour.
+ * Trending windows (24h, 7d) are a weighted ZUNIONSTORE of the hourly
+ * buckets with exponential decay, cached for a minute.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HashtagLeaderboardService {
+
+    private static final String POPULAR_KEY = "hashtags:popular";
+    private static final String BUCKET_PREFIX = "hashtags:bucket:";
+    private static final String TRENDING_PREFIX = "hashtags:trending:";
+
+    private static final Duration BUCKET_TTL = Duration.ofDays(8);
+    private static final Duration TRENDING_CACHE_TTL = Duration.ofMinutes(1);
+
+    public enum Window {
+        DAY(24, 6), // 24 buckets, half-life 6h
+        WEEK(24 * 7, 48); // 168 buckets, half-life 2 days
+
+        final int hours;
+        final double halfLifeHours;
+
+        Window(int hours, double halfLifeHours) {
+            this.hours = hours;
+            this.halfLifeHours = halfLifeHours;
+        }
+
+        public static Window parse(String value) {
+            return switch (value.toLowerCase()) {
+                case "24h", "day" -> DAY;
+                case "7d", "week" -> WEEK;
+                default -> throw new IllegalArgumentException("Unsupported trending window: " + value);
+            };
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final HashtagRepository hashtagRepository;
+
+    @Value("${hashtags.leaderboard.max-limit:50}")
+    private int maxLimit;
+
+    // --- WRITE PATH (after commit) ---
+
+    // Every trending change goes to the post's publication hour (Post.publishedAt),
+    // so a later removal or retag undoes exactly what the publication added.
+
+    // A post became visible with these tags
+    public void onPublished(Collection<String> tags, LocalDateTime publishedAt) {
+        if (tags.isEmpty())
+            return;
+        TransactionHooks.afterCommit(() -> adjust(tags, 1, bucketOf(publishedAt)));
+    }
+
+    // A published post disappeared
+    public void onRemoved(Collection<String> tags, LocalDateTime publishedAt) {
+        if (tags.isEmpty())
+            return;
+        TransactionHooks.afterCommit(() -> adjust(tags, -1, bucketOf(publishedAt)));
+    }
+
+    // Tags of a published post were edited
+    public void onRetagged(Collection<String> removed, Collection<String> added, LocalDateTime publishedAt) {
+        onRemoved(removed, publishedAt);
+        onPublished(added, publishedAt);
+    }
+
+    private void adjust(Collection<String> tags, double delta, long bucket) {
+        // Buckets past their TTL are gone and outside every window: only the popular board changes
+        boolean bucketLive = bucket > currentBucket() - BUCKET_TTL.toHours();
+        String bucketKey = BUCKET_PREFIX + bucket;
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (String tag : tags) {
+                        ops.opsForZSet().incrementScore(POPULAR_KEY, tag, delta);
+                        if (bucketLive)
+                            ops.opsForZSet().incrementScore(bucketKey, tag, delta);
+                    }
+                    // Tags whose count dropped to zero leave the boards
+                    ops.opsForZSet().removeRangeByScore(POPULAR_KEY, Double.NEGATIVE_INFINITY, 0);
+                    if (bucketLive) {
+                        ops.opsForZSet().removeRangeByScore(bucketKey, Double.NEGATIVE_INFINITY, 0);
+                        ops.expire(bucketKey, BUCKET_TTL);
+                    }
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            // The nightly rebuild corrects the popular board
+            log.warn("Failed to update hashtag leaderboard", e);
+        }
+    }
+
+    // --- READ PATH ---
+
+    public List<String> popular(int limit) {
+        return top(POPULAR_KEY, limit);
+    }
+
+    public List<String> trending(Window window, int limit) {
+        String key = TRENDING_PREFIX + window.name().toLowerCase();
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            computeTrending(window, key);
+        }
+        return top(key, limit);
+    }
+
+    // Whole popular board (tag -> published posts), for in-process ranking
+    public Map<String, Double> scores() {
+        Set<TypedTuple<String>> tuples = redisTemplate.opsForZSet().rangeWithScores(POPULAR_KEY, 0, -1);
+        Map<String, Double> result = new HashMap<>();
+        if (tuples != null) {
+            for (TypedTuple<String> t : tuples) {
+                result.put(t.getValue(), t.getScore());
+            }
+        }
+        return result;
+    }
+
+    private List<String> top(String key, int limit) {
+        int k = Math.min(Math.max(limit, 1), maxLimit);
+        Set<String> tags = redisTemplate.opsForZSet().reverseRange(key, 0, k - 1);
+        return tags == null ? List.of() : new ArrayList<>(tags);
+    }
+
+    // score = sum over buckets of uses * 0.5^(ageHours / halfLife)
+    private void computeTrending(Window window, String destination) {
+        long now = currentBucket();
+        List<String> keys = new ArrayList<>(window.hours);
+        List<Double> weights = new ArrayList<>(window.hours);
+        for (int age = 0; age < window.hours; age++) {
+            keys.add(BUCKET_PREFIX + (now - age));
+            weights.add(Math.pow(0.5, age / window.halfLifeHours));
+        }
+
+        double[] w = weights.stream().mapToDouble(Double::doubleValue).toArray();
+        redisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), destination,
+                Aggregate.SUM, Weights.of(w));
+        redisTemplate.expire(destination, TRENDING_CACHE_TTL);
+    }
+
+    // --- REBUILD ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(POPULAR_KEY))) {
+            rebuild();
+        }
+    }
+
+    // Corrects any drift of the incremental updates (lost messages, failed pipelines)
+    @Scheduled(cron = "${hashtags.leaderboard.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        String tmp = POPULAR_KEY + ":rebuild";
+        List<Object[]> counts = hashtagRepository.countPostsPerHashtag(PostStatus.PUBLISHED);
+
+        redisTemplate.delete(tmp);
+        if (counts.isEmpty()) {
+            redisTemplate.delete(POPULAR_KEY);
+            return;
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (Object[] row : counts) {
+                    ops.opsForZSet().add(tmp, (String) row[0], ((Long) row[1]).doubleValue());
+                }
+                return null;
+            }
+        });
+        // Readers switch to the new board atomically
+        redisTemplate.rename(tmp, POPULAR_KEY);
+        log.info("Hashtag leaderboard rebuilt with {} tags", counts.size());
+    }
+
+    // --- HELPERS ---
+
+    private static long currentBucket() {
+        return Instant.now().getEpochSecond() / 3600;
+    }
+
+    private static long bucketOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() / 3600;
+    }
+}
@@ -0,0 +1,124 @@
+package com.blog._1.services;
+
+import com.blog._1.repositories.HashtagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-process autocomplete for hashtag names.
+ *
+ * Names live in an immutable sorted array, published through a volatile
+ * field: readers binary-search the prefix range without any locking, and
+ * the rare writers (tag creation, periodic refresh) swap in a new snapshot.
+ * Completions are ranked by usage (published posts per tag, taken from the
+ * popular leaderboard).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HashtagPrefixIndex {
+
+    // Bounds the work of very short prefixes ("a") on large tag sets
+    private static final int MAX_SCAN = 5000;
+
+    private final HashtagRepository hashtagRepository;
+    private final HashtagLeaderboardService leaderboardService;
+
+    private record Snapshot(String[] names, double[] usage) {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new double[0]);
+    }
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // --- LOADING ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${hashtags.prefix-index.refresh-ms:300000}", initialDelayString = "${hashtags.prefix-index.refresh-ms:300000}")
+    public synchronized void reload() {
+        String[] names = hashtagRepository.findAllNames().toArray(new String[0]);
+        Arrays.sort(names);
+
+        Map<String, Double> scores = leaderboardService.scores();
+        double[] usage = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            usage[i] = scores.getOrDefault(names[i], 0d);
+        }
+
+        snapshot = new Snapshot(names, usage);
+        log.debug("Hashtag prefix index loaded with {} tags", names.length);
+    }
+
+    // Copy-on-write insert; tag creation is rare compared to lookups
+    public synchronized void add(String name) {
+        Snapshot current = snapshot;
+        int pos = Arrays.binarySearch(current.names(), name);
+        if (pos >= 0)
+            return;
+
+        int insertAt = -pos - 1;
+        int n = current.names().length;
+        String[] names = new String[n + 1];
+        double[] usage = new double[n + 1];
+
+        System.arraycopy(current.names(), 0, names, 0, insertAt);
+        System.arraycopy(current.usage(), 0, usage, 0, insertAt);
+        names[insertAt] = name;
+        System.arraycopy(current.names(), insertAt, names, insertAt + 1, n - insertAt);
+        System.arraycopy(current.usage(), insertAt, usage, insertAt + 1, n - insertAt);
+
+        snapshot = new Snapshot(names, usage);
+    }
+
+    // --- LOOKUP ---
+
+    // Most used tags starting with the prefix, best first
+    public List<String> complete(String prefix, int limit) {
+        Snapshot s = snapshot;
+        String[] names = s.names();
+
+        int from = lowerBound(names, prefix);
+        int end = Math.min(names.length, from + MAX_SCAN);
+
+        // Min-heap of the best `limit` candidates (by usage, then alphabetical)
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1,
+                (a, b) -> s.usage()[a] != s.usage()[b]
+                        ? Double.compare(s.usage()[a], s.usage()[b])
+                        : names[b].compareTo(names[a]));
+
+        for (int i = from; i < end && names[i].startsWith(prefix); i++) {
+            best.offer(i);
+            if (best.size() > limit)
+                best.poll();
+        }
+
+        List<String> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(names[best.poll()]);
+        }
+        return result.reversed();
+    }
+
+    private static int lowerBound(String[] names, String key) {
+        int lo = 0;
+        int hi = names.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (names[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
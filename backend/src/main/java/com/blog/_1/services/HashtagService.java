@@ -1,29 +1,127 @@
 package com.blog._1.services;
 
-import com.blog._1.models.PostStatus;
+import com.blog._1.models.Hashtag;
 import com.blog._1.repositories.HashtagRepository;
+import com.blog._1.utils.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class HashtagService {
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Hashtags are never renamed or deleted, so name -> id entries cannot go stale
+    private static final long ID_CACHE_SIZE = 10_000;
+
+    private static final String INSERT_SQL = "INSERT INTO hashtags (id, name) "
+            + "SELECT gen_random_uuid(), n FROM unnest(CAST(? AS text[])) AS n "
+            + "ON CONFLICT (name) DO NOTHING RETURNING id, name";
+
     private final HashtagRepository hashtagRepository;
+    private final HashtagLeaderboardService leaderboardService;
+    private final HashtagPrefixIndex hashtagPrefixIndex;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, UUID> idsByName = Caffeine.newBuilder().maximumSize(ID_CACHE_SIZE).build();
 
-    @Transactional(readOnly = true)
+    // Precomputed leaderboard: no GROUP BY over posts on the read path
     public List<String> getPopularTags(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return hashtagRepository.findTopHashtags(PostStatus.PUBLISHED, pageable);
+        return leaderboardService.popular(limit);
     }
 
-    @Transactional(readOnly = true)
+    public List<String> getTrendingTags(String window, int limit) {
+        return leaderboardService.trending(HashtagLeaderboardService.Window.parse(window), limit);
+    }
+
+    // Autocomplete from the in-memory index, no database round-trip per keystroke
     public List<String> searchTags(String query) {
-        return hashtagRepository.searchByName(query, PageRequest.of(0, 5));
+        // Exactly the normalization of stored names, so "#spr" still finds "_spring"
+        String prefix = normalize(query);
+        return prefix.isEmpty() ? List.of() : hashtagPrefixIndex.complete(prefix, 5);
+    }
+
+    /**
+     * Hashtags for the given raw names, creating the missing ones.
+     * Cached names cost nothing; the rest take one IN lookup and at most one
+     * INSERT ... ON CONFLICT DO NOTHING, so a concurrent creation of the
+     * same tag is absorbed instead of failing on the unique constraint.
+     *
+     * The returned instances only carry id and name, which is all the
+     * post_hashtags association needs.
+     */
+    public Set<Hashtag> resolveOrCreate(Collection<String> rawNames) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String raw : rawNames) {
+            String name = normalize(raw);
+            if (!name.isEmpty())
+                names.add(name);
+        }
+        if (names.isEmpty())
+            return new HashSet<>();
+
+        Map<String, UUID> resolved = new HashMap<>(idsByName.getAllPresent(names));
+
+        List<String> missing = names.stream().filter(n -> !resolved.containsKey(n)).toList();
+        if (!missing.isEmpty()) {
+            for (Hashtag tag : hashtagRepository.findByNameIn(missing)) {
+                resolved.put(tag.getName(), tag.getId());
+                idsByName.put(tag.getName(), tag.getId());
+            }
+        }
+
+        List<String> toCreate = names.stream().filter(n -> !resolved.containsKey(n)).toList();
+        if (!toCreate.isEmpty()) {
+            Map<String, UUID> created = new HashMap<>();
+            jdbcTemplate.query(INSERT_SQL,
+                    rs -> {
+                        created.put(rs.getString("name"), rs.getObject("id", UUID.class));
+                    },
+                    (Object) toCreate.toArray(new String[0]));
+            resolved.putAll(created);
+
+            // Ids of rows we created only exist if this transaction commits
+            TransactionHooks.afterCommit(() -> created.forEach((name, id) -> {
+                idsByName.put(name, id);
+                hashtagPrefixIndex.add(name);
+            }));
+
+            // Names inserted concurrently by another transaction were skipped by ON CONFLICT
+            List<String> raced = toCreate.stream().filter(n -> !created.containsKey(n)).toList();
+            if (!raced.isEmpty()) {
+                for (Hashtag tag : hashtagRepository.findByNameIn(raced)) {
+                    resolved.put(tag.getName(), tag.getId());
+                    idsByName.put(tag.getName(), tag.getId());
+                }
+            }
+        }
+
+        Set<Hashtag> hashtags = new HashSet<>();
+        for (String name : names) {
+            UUID id = resolved.get(name);
+            if (id != null)
+                hashtags.add(Hashtag.builder().id(id).name(name).build());
+        }
+        return hashtags;
+    }
+
+    // "#Spring Boot" -> "_springboot", as tags have always been stored
+    public static String normalize(String raw) {
+        return raw == null ? "" : WHITESPACE.matcher(raw).replaceAll("").replace("#", "_").toLowerCase();
     }
-}
\ No newline at end of file
+}
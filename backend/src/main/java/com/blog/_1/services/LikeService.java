@@ -2,15 +2,10 @@ package com.blog._1.services;
 
 import java.util.UUID;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.blog._1.models.PostLike;
 import com.blog._1.repositories.LikeRepository;
-import com.blog._1.repositories.PostRepository;
-import com.blog._1.repositories.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -18,41 +13,31 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LikeService {
 
+    // The unique (post_id, user_id) constraint decides: a double click inserts once
+    private static final String LIKE_SQL = "INSERT INTO post_likes (id, post_id, user_id, created_at) "
+            + "VALUES (?, ?, ?, now()) ON CONFLICT (post_id, user_id) DO NOTHING";
+
+    private static final String UNLIKE_SQL = "DELETE FROM post_likes WHERE post_id = ? AND user_id = ?";
+
     private final LikeRepository likeRepository;
-    private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final PostCounterService postCounterService;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserInteractionCache userInteractionCache;
 
-    @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "single_post", key = "#postId"),
-            @CacheEvict(value = "post_pages", allEntries = true) // Wipes the paginated lists so the likeCount updates
-    })
+    // One auto-committed statement each; the counter only moves when a row actually changed.
+    // No cache eviction: cached pages/cards only hold bodies, the live
+    // likeCount is served by PostCounterService
     public void like(UUID postId, UUID userId) {
-        if (likeRepository.existsByPostIdAndUserId(postId, userId)) {
-            return;
+        if (jdbcTemplate.update(LIKE_SQL, UUID.randomUUID(), postId, userId) == 1) {
+            postCounterService.adjustLikes(postId, 1);
+            userInteractionCache.onLikeChanged(userId, postId, true);
         }
-
-        var postRef = postRepository.getReferenceById(postId);
-        var userRef = userRepository.getReferenceById(userId);
-
-        PostLike like = new PostLike();
-        like.setPost(postRef);
-        like.setUser(userRef);
-
-        likeRepository.save(like);
-        postRepository.incrementLikeCount(postId);
     }
 
-    @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "single_post", key = "#postId"),
-            @CacheEvict(value = "post_pages", allEntries = true)
-    })
-
     public void unlike(UUID postId, UUID userId) {
-        if (likeRepository.existsByPostIdAndUserId(postId, userId)) {
-            likeRepository.deleteByPostIdAndUserId(postId, userId);
-            postRepository.decrementLikeCount(postId);
+        if (jdbcTemplate.update(UNLIKE_SQL, postId, userId) == 1) {
+            postCounterService.adjustLikes(postId, -1);
+            userInteractionCache.onLikeChanged(userId, postId, false);
         }
     }
 
@@ -65,6 +50,8 @@ public class LikeService {
     public boolean isLiked(UUID postId, UUID userId) {
         if (userId == null)
             return false;
-        return likeRepository.existsByPostIdAndUserId(postId, userId);
+        UserInteractionCache.Interactions interactions = userInteractionCache.get(userId);
+        return interactions != null ? interactions.isLiked(postId)
+                : likeRepository.existsByPostIdAndUserId(postId, userId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.admin.NotificationPipelineStatsDTO;
+import com.blog._1.dto.notification.NotificationResponse;
+import com.blog._1.dto.post.PostMinimalDTO;
+import com.blog._1.models.Post;
+import com.blog._1.repositories.SubscriptionRepository;
+import com.blog._1.utils.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Follower notification fan-out, decoupled from the publishing request.
+ *
+ * Publishing a post only enqueues a small job (after commit) on a bounded
+ * queue. Virtual-thread workers then stream ALL followers in keyset batches,
+ * bulk-insert the notifications with one JDBC batch per follower batch, push
+ * the SSE frames, and push the post into the followers' home timelines
+ * (TimelineService) from the same batches.
+ *
+ * When the queue is full the job runs on the caller thread instead of being
+ * dropped, which slows publishers down rather than losing notifications.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationPipeline {
+
+    private static final String INSERT_SQL = "INSERT INTO notifications "
+            + "(id, message, read, user_id, post_id, created_at) VALUES (?, ?, false, ?, ?, ?)";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notifications.pipeline.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${notifications.pipeline.workers:2}")
+    private int workerCount;
+
+    @Value("${notifications.pipeline.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${notifications.pipeline.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    private BlockingQueue<FanOutJob> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    // --- Metrics ---
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder runOnCaller = new LongAdder();
+    private final LongAdder inserted = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final LongAccumulator maxLagMillis = new LongAccumulator(Math::max, 0);
+
+    // Everything a worker needs, captured while the Post is still attached
+    private record FanOutJob(UUID postId, UUID authorId, String title, String authorUsername,
+            LocalDateTime createdAt, String message, long enqueuedAtNanos) {
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("notification-fanout-" + i).start(this::runWorker));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        // Workers finish the job in hand and leave at their next poll. An interrupt would
+        // close the JDBC socket under a running batch, so it is only the timeout fallback
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+        for (Thread worker : workers) {
+            try {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis > 0)
+                    worker.join(remainingMillis);
+                if (worker.isAlive()) {
+                    log.warn("Notification worker {} still busy after {}s, interrupting it",
+                            worker.getName(), shutdownTimeoutSeconds);
+                    worker.interrupt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.forEach(Thread::interrupt);
+                break;
+            }
+        }
+
+        // Do not lose already accepted jobs on a graceful shutdown
+        FanOutJob job;
+        while ((job = queue.poll()) != null) {
+            process(job);
+        }
+    }
+
+    /**
+     * Schedules the follower fan-out of a freshly published post.
+     * Must be called inside the publishing transaction: the job is only
+     * enqueued once it commits.
+     */
+    public void submit(Post post) {
+        UUID postId = post.getId();
+        UUID authorId = post.getAuthor().getId();
+        String title = post.getTitle();
+        String username = post.getAuthor().getUsername();
+        LocalDateTime createdAt = post.getCreatedAt();
+
+        TransactionHooks.afterCommit(() -> enqueue(new FanOutJob(postId, authorId, title, username,
+                createdAt, username + " published: " + title, System.nanoTime())));
+    }
+
+    private void enqueue(FanOutJob job) {
+        submitted.increment();
+
+        if (!queue.offer(job)) {
+            // Back-pressure: the publisher pays for it instead of dropping notifications
+            runOnCaller.increment();
+            log.warn("Notification queue full ({}), fanning out post {} on caller thread",
+                    queueCapacity, job.postId());
+            process(job);
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                FanOutJob job = queue.poll(1, TimeUnit.SECONDS);
+                if (job != null) {
+                    process(job);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // --- Fan-out ---
+
+    private void process(FanOutJob job) {
+        long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - job.enqueuedAtNanos());
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulate(lag);
+
+        try {
+            int total = 0;
+            boolean timelines = timelineService.shouldFanOut(job.authorId());
+            List<UUID> followerIds = subscriptionRepository.findFollowerIdsByFollowingId(job.authorId(),
+                    PageRequest.of(0, batchSize));
+
+            while (!followerIds.isEmpty()) {
+                insertAndPush(job, followerIds);
+                if (timelines)
+                    timelineService.push(followerIds, job.postId(), job.createdAt());
+                total += followerIds.size();
+
+                if (followerIds.size() < batchSize)
+                    break;
+
+                // Keyset on follower id: no OFFSET scans on large follower lists
+                UUID last = followerIds.get(followerIds.size() - 1);
+                followerIds = subscriptionRepository.findFollowerIdsByFollowingIdAfter(job.authorId(), last,
+                        PageRequest.of(0, batchSize));
+            }
+
+            completed.increment();
+            log.info("Sent {} notifications for post {}", total, job.postId());
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Notification fan-out failed for post {}", job.postId(), e);
+        }
+    }
+
+    private void insertAndPush(FanOutJob job, List<UUID> followerIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+
+        List<UUID> ids = new ArrayList<>(followerIds.size());
+        List<Object[]> rows = new ArrayList<>(followerIds.size());
+        for (UUID followerId : followerIds) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            rows.add(new Object[] { id, job.message(), followerId, job.postId(), createdAt });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        inserted.add(rows.size());
+
+        PostMinimalDTO post = new PostMinimalDTO();
+        post.setId(job.postId());
+        post.setTitle(job.title());
+        post.setAuthorUsername(job.authorUsername());
+
+        for (int i = 0; i < followerIds.size(); i++) {
+            NotificationResponse dto = new NotificationResponse();
+            dto.setId(ids.get(i));
+            dto.setMessage(job.message());
+            dto.setRead(false);
+            dto.setCreatedAt(now.toString());
+            dto.setPost(post);
+            notificationService.push(followerIds.get(i), dto);
+        }
+    }
+
+    public NotificationPipelineStatsDTO stats() {
+        return NotificationPipelineStatsDTO.builder()
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .jobsSubmitted(submitted.sum())
+                .jobsCompleted(completed.sum())
+                .jobsFailed(failed.sum())
+                .jobsRunOnCaller(runOnCaller.sum())
+                .notificationsInserted(inserted.sum())
+                .lastLagMillis(lastLagMillis.get())
+                .maxLagMillis(maxLagMillis.get())
+                .build();
+    }
+}
@@ -3,23 +3,16 @@ package com.blog._1.services;
 import com.blog._1.dto.notification.NotificationResponse;
 import com.blog._1.dto.post.PostMinimalDTO;
 import com.blog._1.models.Notification;
-import com.blog._1.models.Post;
-import com.blog._1.models.User;
 import com.blog._1.repositories.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -27,60 +20,16 @@ import java.util.concurrent.ConcurrentHashMap;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final Map<UUID, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private final SseConnectionRegistry sseConnectionRegistry;
 
+    // Several tabs/devices per user are kept, see SseConnectionRegistry
     public SseEmitter subscribe(UUID userId) {
-        SseEmitter emitter = new SseEmitter(30 * 60 * 1000L); // 30 min
-        emitters.put(userId, emitter);
-
-        emitter.onCompletion(() -> emitters.remove(userId));
-        emitter.onTimeout(() -> emitters.remove(userId));
-        emitter.onError((e) -> emitters.remove(userId));
-
-        return emitter;
+        return sseConnectionRegistry.register(userId);
     }
 
-    // OPTIMIZATION: Added @Async and @Transactional
-    // This runs in a background thread so the user doesn't wait for notifications
-    // to be sent.
-    @Async
-    @Transactional
-    public void notifyFollowers(Post post, List<User> followers) {
-        if (followers.isEmpty())
-            return;
-
-        log.info("Sending notifications to {} followers for post {}", followers.size(), post.getId());
-
-        List<Notification> notificationsToSave = new ArrayList<>();
-        String message = post.getAuthor().getUsername() + " published: " + post.getTitle();
-
-        for (User follower : followers) {
-            Notification n = new Notification();
-            n.setReceiver(follower);
-            n.setPost(post);
-            n.setMessage(message);
-            n.setRead(false);
-            notificationsToSave.add(n);
-        }
-
-        // Batch Insert
-        List<Notification> savedNotifications = notificationRepository.saveAll(notificationsToSave);
-
-        // Real-time Push (SSE)
-        for (Notification n : savedNotifications) {
-            UUID receiverId = n.getReceiver().getId();
-            if (emitters.containsKey(receiverId)) {
-                try {
-                    // mapToResponse is safe here because we just created the objects,
-                    // so we know the data is loaded.
-                    emitters.get(receiverId).send(SseEmitter.event()
-                            .name("notification")
-                            .data(mapToResponse(n)));
-                } catch (IOException e) {
-                    emitters.remove(receiverId);
-                }
-            }
-        }
+    // Called from the NotificationPipeline workers; delivery is queued, never blocking
+    public void push(UUID receiverId, NotificationResponse notification) {
+        sseConnectionRegistry.send(receiverId, "notification", notification);
     }
 
     // OPTIMIZATION: The Repository now eagerly fetches Post+Author,
@@ -0,0 +1,95 @@
+package com.blog._1.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Total-count strategies for Page responses.
+ *
+ * Listings always fetch their rows as a slice (size + 1, no COUNT query);
+ * the total is then produced according to the mode the caller asked for:
+ * - EXACT: a COUNT(*) with the listing's own filters (previous behavior);
+ * - CACHED: the exact count, memoized per listing for a short TTL;
+ * - ESTIMATE: the planner estimate (pg_class.reltuples) of a whole-table
+ * listing, falling back to CACHED for filtered ones;
+ * - NONE: no count at all, the total only tells whether a next page exists.
+ */
+@Service
+@RequiredArgsConstructor
+public class PageCountService {
+
+    public enum Mode {
+        EXACT, CACHED, ESTIMATE, NONE;
+
+        public static Mode parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported count mode: " + value);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${pagination.count-cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${pagination.count-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private Cache<String, Long> counts;
+
+    @PostConstruct
+    void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    /**
+     * Builds the page from a slice of rows.
+     *
+     * @param cacheKey   identifies the listing and its filters (not the page)
+     * @param table      table whose estimate equals the listing size, or null when filtered
+     * @param exactCount the listing's COUNT query
+     */
+    public <T> Page<T> toPage(List<T> content, Pageable pageable, boolean hasNext, Mode mode,
+            String cacheKey, String table, LongSupplier exactCount) {
+        // Whatever the mode, the total never contradicts the rows actually seen
+        long seen = pageable.getOffset() + content.size() + (hasNext ? 1 : 0);
+
+        long total = switch (mode) {
+            case EXACT -> exactCount.getAsLong();
+            case CACHED -> Math.max(cached(cacheKey, exactCount), seen);
+            case ESTIMATE -> Math.max(table != null ? estimate(table, cacheKey, exactCount)
+                    : cached(cacheKey, exactCount), seen);
+            case NONE -> seen;
+        };
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private long cached(String cacheKey, LongSupplier exactCount) {
+        return counts.get(cacheKey, k -> exactCount.getAsLong());
+    }
+
+    private long estimate(String table, String cacheKey, LongSupplier exactCount) {
+        Long estimate = jdbcTemplate.queryForObject(
+                "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST(? AS regclass)", Long.class, table);
+        // -1 until the table has been analyzed once
+        return estimate != null && estimate >= 0 ? estimate : cached(cacheKey, exactCount);
+    }
+}
@@ -0,0 +1,135 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.admin.PasswordHashingStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of servlet threads.
+ *
+ * The pool has a fixed number of threads and a bounded queue; once both are
+ * full, new work is rejected immediately (RejectedExecutionException, mapped
+ * to 503 by GlobalExceptionHandler). A login burst therefore costs at most
+ * "threads" cores and never ties up the Tomcat workers serving reads.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    // BCrypt is CPU bound: more threads than cores only adds queueing inside the scheduler
+    @Value("${security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    // --- Metrics ---
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct
+    void start() {
+        if (threads <= 0)
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Password hashing pool saturated");
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    // --- ASYNC API (frees the calling thread while hashing) ---
+
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // --- BLOCKING API (same admission control, for rare call sites) ---
+
+    public String encode(String rawPassword) {
+        return await(encodeAsync(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(matchesAsync(rawPassword, encodedPassword));
+    }
+
+    public PasswordHashingStatsDTO stats() {
+        long done = completed.sum();
+        return PasswordHashingStatsDTO.builder()
+                .threads(threads)
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .hashesCompleted(done)
+                .hashesRejected(rejected.sum())
+                .avgHashMillis(done == 0 ? 0 : totalNanos.sum() / (double) done / 1_000_000)
+                .maxHashMillis(TimeUnit.NANOSECONDS.toMillis(maxNanos.get()))
+                .build();
+    }
+
+    // Throws RejectedExecutionException right away when saturated
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                completed.increment();
+                totalNanos.add(elapsed);
+                maxNanos.accumulate(elapsed);
+            }
+        }, executor);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+}
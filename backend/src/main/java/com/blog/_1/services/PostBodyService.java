@@ -0,0 +1,209 @@
+package com.blog._1.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compacted storage for published post bodies (see PostBody).
+ *
+ * Drafts keep the chunked upload path (one post_content_chunks row per chunk).
+ * On finalize the chunks are deflated frame by frame into a single
+ * post_bodies row and the chunk rows are dropped. Because every chunk is
+ * its own frame, any chunk range is served by fetching only its byte range
+ * (substring on an uncompressed-storage bytea, see SchemaMaintenance) and
+ * inflating just those frames.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostBodyService {
+
+    private static final String UPSERT_SQL = "INSERT INTO post_bodies "
+            + "(post_id, chunk_count, raw_size, frame_offsets, data) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (post_id) DO UPDATE SET chunk_count = EXCLUDED.chunk_count, "
+            + "raw_size = EXCLUDED.raw_size, frame_offsets = EXCLUDED.frame_offsets, data = EXCLUDED.data";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Frames fetched per round trip when streaming a whole body
+    @Value("${posts.body.read-window:16}")
+    private int readWindow;
+
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(int index, String content) throws IOException;
+    }
+
+    // Offsets of a compacted body, without the data itself
+    public record BodyIndex(UUID postId, int[] offsets) {
+        public int chunkCount() {
+            return offsets.length - 1;
+        }
+    }
+
+    // --- WRITE PATH ---
+
+    /**
+     * Moves the chunks of a post into its compacted body. Runs inside the
+     * finalize transaction, so a failure leaves the chunks untouched.
+     */
+    public void compact(UUID postId) {
+        List<String> chunks = jdbcTemplate.queryForList(
+                "SELECT content FROM post_content_chunks WHERE post_id = ? ORDER BY chunk_index",
+                String.class, postId);
+        if (chunks.isEmpty())
+            return;
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteBuffer offsets = ByteBuffer.allocate((chunks.size() + 1) * Integer.BYTES);
+        long rawSize = 0;
+
+        Deflater deflater = new Deflater();
+        try {
+            for (String chunk : chunks) {
+                byte[] raw = chunk == null ? new byte[0] : chunk.getBytes(StandardCharsets.UTF_8);
+                rawSize += raw.length;
+                offsets.putInt(data.size());
+                deflate(deflater, raw, data);
+            }
+            offsets.putInt(data.size());
+        } finally {
+            deflater.end();
+        }
+
+        jdbcTemplate.update(UPSERT_SQL, postId, chunks.size(), rawSize, offsets.array(), data.toByteArray());
+        jdbcTemplate.update("DELETE FROM post_content_chunks WHERE post_id = ?", postId);
+
+        log.debug("Compacted post {}: {} chunks, {} -> {} bytes", postId, chunks.size(), rawSize, data.size());
+    }
+
+    /**
+     * Turns a compacted body back into chunk rows, so that further chunk
+     * uploads on the post keep their usual append semantics.
+     */
+    public void expand(UUID postId) {
+        Optional<BodyIndex> index = index(postId);
+        if (index.isEmpty())
+            return;
+
+        List<Object[]> rows = new ArrayList<>();
+        List<String> chunks = read(index.get(), 0, index.get().chunkCount());
+        for (int i = 0; i < chunks.size(); i++) {
+            rows.add(new Object[] { UUID.randomUUID(), chunks.get(i), i, postId });
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO post_content_chunks (id, content, chunk_index, post_id) VALUES (?, ?, ?, ?)", rows);
+        delete(postId);
+    }
+
+    public void delete(UUID postId) {
+        jdbcTemplate.update("DELETE FROM post_bodies WHERE post_id = ?", postId);
+    }
+
+    // --- READ PATH ---
+
+    public Optional<BodyIndex> index(UUID postId) {
+        List<byte[]> rows = jdbcTemplate.queryForList(
+                "SELECT frame_offsets FROM post_bodies WHERE post_id = ?", byte[].class, postId);
+        if (rows.isEmpty())
+            return Optional.empty();
+
+        ByteBuffer buffer = ByteBuffer.wrap(rows.get(0));
+        int[] offsets = new int[buffer.remaining() / Integer.BYTES];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = buffer.getInt();
+        }
+        return Optional.of(new BodyIndex(postId, offsets));
+    }
+
+    // Chunks [from, to) of the body, fetching only their compressed bytes
+    public List<String> read(BodyIndex index, int from, int to) {
+        List<String> result = new ArrayList<>(Math.max(to - from, 0));
+        if (from >= to)
+            return result;
+
+        int[] offsets = index.offsets();
+        byte[] window = fetch(index.postId(), offsets[from], offsets[to]);
+
+        Inflater inflater = new Inflater();
+        try {
+            for (int i = from; i < to; i++) {
+                result.add(inflate(inflater, window, offsets[i] - offsets[from], offsets[i + 1] - offsets[i]));
+            }
+        } finally {
+            inflater.end();
+        }
+        return result;
+    }
+
+    // Whole body in order, readWindow frames per query: memory stays bounded for long posts
+    public void forEach(BodyIndex index, ChunkSink sink) throws IOException {
+        forEach(index, sink, () -> false);
+    }
+
+    // Same, but no further window is fetched once done returns true
+    public void forEach(BodyIndex index, ChunkSink sink, BooleanSupplier done) throws IOException {
+        for (int from = 0; from < index.chunkCount() && !done.getAsBoolean(); from += readWindow) {
+            int to = Math.min(from + readWindow, index.chunkCount());
+            List<String> chunks = read(index, from, to);
+            for (int i = 0; i < chunks.size(); i++) {
+                sink.accept(from + i, chunks.get(i));
+            }
+        }
+    }
+
+    // --- HELPERS ---
+
+    private byte[] fetch(UUID postId, int start, int end) {
+        // substring() on bytea is 1-based
+        return jdbcTemplate.queryForObject(
+                "SELECT substring(data FROM ? FOR ?) FROM post_bodies WHERE post_id = ?",
+                byte[].class, start + 1, end - start, postId);
+    }
+
+    private static void deflate(Deflater deflater, byte[] raw, ByteArrayOutputStream out) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+    }
+
+    private static String inflate(Inflater inflater, byte[] source, int offset, int length) {
+        inflater.reset();
+        inflater.setInput(source, offset, length);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+        byte[] buffer = new byte[8192];
+        try {
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsInput())
+                    throw new IllegalStateException("Truncated post body frame");
+                out.write(buffer, 0, n);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted post body frame", e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
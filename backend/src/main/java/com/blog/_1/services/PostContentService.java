@@ -0,0 +1,142 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.post.PostChunkResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams the whole body of a post in one response, straight from a JDBC
+ * cursor: no entity hydration, no per-page count query and constant memory
+ * whatever the article length.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostContentService {
+
+    public enum Format {
+        NDJSON, // one PostChunkResponse JSON object per line
+        TEXT; // chunks concatenated
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported content format: " + value);
+            }
+        }
+    }
+
+    // Change detection for the ETag: updatedAt is touched whenever chunks are
+    // uploaded (new or replaced), cleared or compacted; the count tells layouts apart
+    private static final String VERSION_SQL = "SELECT COALESCE(p.updated_at, p.created_at), "
+            + "COALESCE((SELECT b.chunk_count FROM post_bodies b WHERE b.post_id = p.id), "
+            + "(SELECT COUNT(*) FROM post_content_chunks c WHERE c.post_id = p.id)) "
+            + "FROM posts p WHERE p.id = ?";
+
+    private static final String CHUNKS_SQL = "SELECT chunk_index, content FROM post_content_chunks "
+            + "WHERE post_id = ? ORDER BY chunk_index";
+
+    private static final byte[] NEW_LINE = { '\n' };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final PostBodyService postBodyService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${posts.content.fetch-size:64}")
+    private int fetchSize;
+
+    public record ContentVersion(UUID postId, long chunkCount, String etag) {
+    }
+
+    public ContentVersion version(UUID postId) {
+        List<ContentVersion> rows = jdbcTemplate.query(VERSION_SQL,
+                (rs, i) -> {
+                    Timestamp modified = rs.getTimestamp(1);
+                    long count = rs.getLong(2);
+                    return new ContentVersion(postId, count,
+                            "W/\"" + postId + "-" + modified.getTime() + "-" + count + "\"");
+                },
+                postId);
+
+        if (rows.isEmpty())
+            throw new RuntimeException("Post not found");
+        return rows.get(0);
+    }
+
+    public StreamingResponseBody stream(ContentVersion version, Format format) {
+        return out -> {
+            // Postgres only streams with a fetch size inside a transaction
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            tx.executeWithoutResult(status -> {
+                var body = postBodyService.index(version.postId());
+                if (body.isPresent()) {
+                    // Published post: inflate the compacted body window by window
+                    try {
+                        postBodyService.forEach(body.get(), (index, content) -> write(out, format, index, content,
+                                index + 1 == body.get().chunkCount()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return;
+                }
+                streamChunks(version, format, out);
+            });
+            out.flush();
+        };
+    }
+
+    // Draft layout: one row per chunk, read through a server-side cursor
+    private void streamChunks(ContentVersion version, Format format, OutputStream out) {
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(CHUNKS_SQL);
+                    ps.setFetchSize(fetchSize);
+                    ps.setObject(1, version.postId());
+                    return ps;
+                },
+                rs -> {
+                    int index = rs.getInt(1);
+                    String content = rs.getString(2);
+                    try {
+                        write(out, format, index, content, index + 1 == version.chunkCount());
+                    } catch (IOException e) {
+                        // Client went away: abort the cursor
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private void write(OutputStream out, Format format, int index, String content, boolean last)
+            throws IOException {
+        if (format == Format.TEXT) {
+            if (content != null)
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        PostChunkResponse chunk = PostChunkResponse.builder()
+                .index(index)
+                .content(content)
+                .isLast(last)
+                .build();
+        out.write(objectMapper.writeValueAsBytes(chunk));
+        out.write(NEW_LINE);
+    }
+}
@@ -0,0 +1,149 @@
+package com.blog._1.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for posts.like_count / posts.comment_count.
+ *
+ * A like used to run "UPDATE posts SET like_count = like_count + 1" inside
+ * the request, so every liker of a viral post queued on the same row lock.
+ * Deltas are now summed in memory (one striped LongAdder pair per post) and
+ * written in one batched UPDATE per interval.
+ *
+ * The posts row is therefore behind by at most one flush interval; readers
+ * that need exact numbers add {@link #pendingLikes}/{@link #pendingComments}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostCounterBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET "
+            + "like_count = GREATEST(like_count + ?, 0), "
+            + "comment_count = GREATEST(comment_count + ?, 0) "
+            + "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<UUID, Delta> deltas = new ConcurrentHashMap<>();
+
+    private static final class Delta {
+        final LongAdder likes = new LongAdder();
+        final LongAdder comments = new LongAdder();
+        boolean idle; // only touched by the (single) flushing thread
+    }
+
+    // --- WRITE PATH (callers are expected to run after commit) ---
+    // The add happens inside compute(): flush() drops idle entries with
+    // computeIfPresent, so a delta can never land in an entry already removed.
+
+    public void addLikes(UUID postId, long delta) {
+        deltas.compute(postId, (id, d) -> {
+            Delta target = d != null ? d : new Delta();
+            target.likes.add(delta);
+            return target;
+        });
+    }
+
+    public void addComments(UUID postId, long delta) {
+        deltas.compute(postId, (id, d) -> {
+            Delta target = d != null ? d : new Delta();
+            target.comments.add(delta);
+            return target;
+        });
+    }
+
+    // --- READ THROUGH ---
+
+    public long pendingLikes(UUID postId) {
+        Delta d = deltas.get(postId);
+        return d == null ? 0 : d.likes.sum();
+    }
+
+    public long pendingComments(UUID postId) {
+        Delta d = deltas.get(postId);
+        return d == null ? 0 : d.comments.sum();
+    }
+
+    // --- FLUSH ---
+
+    @Scheduled(fixedDelayString = "${post-counters.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        log.info("Post counter buffer flushed on shutdown");
+    }
+
+    /**
+     * Writes the accumulated deltas in one JDBC batch.
+     *
+     * The adders are never reset: the flushed amount is subtracted instead,
+     * so increments racing with the flush are simply carried to the next one.
+     */
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<UUID> idleIds = new ArrayList<>();
+
+        for (Map.Entry<UUID, Delta> entry : deltas.entrySet()) {
+            Delta d = entry.getValue();
+            long likes = d.likes.sum();
+            long comments = d.comments.sum();
+
+            if (likes == 0 && comments == 0) {
+                // Drop entries only after a full idle interval to keep churn low
+                if (d.idle) {
+                    idleIds.add(entry.getKey());
+                }
+                d.idle = true;
+                continue;
+            }
+
+            d.idle = false;
+            batch.add(new Object[] { likes, comments, entry.getKey() });
+        }
+
+        for (UUID id : idleIds) {
+            // Atomic with the writers: an entry that received a delta since the scan is kept
+            deltas.computeIfPresent(id, (k, d) -> d.likes.sum() == 0 && d.comments.sum() == 0 ? null : d);
+        }
+
+        if (batch.isEmpty())
+            return;
+
+        // Stable row order so concurrent flushes from several nodes cannot deadlock
+        batch.sort(Comparator.comparing(row -> row[2].toString()));
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            // Nothing was subtracted yet: the deltas stay buffered for the next attempt
+            log.error("Failed to flush {} post counter deltas", batch.size(), e);
+            return;
+        }
+
+        for (Object[] row : batch) {
+            Delta d = deltas.get((UUID) row[2]);
+            if (d != null) {
+                d.likes.add(-(long) row[0]);
+                d.comments.add(-(long) row[1]);
+            }
+        }
+    }
+}
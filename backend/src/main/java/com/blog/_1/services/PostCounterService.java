@@ -0,0 +1,183 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.post.PostResponse;
+import com.blog._1.repositories.PostRepository;
+import com.blog._1.utils.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Live like/comment counters, kept apart from the cached post bodies.
+ *
+ * Cached cards and pages carry whatever counts they were built with; the
+ * real numbers are overlaid from here at read time. A like therefore touches
+ * one Redis hash ("post_counters:{id}") instead of evicting every feed page.
+ *
+ * Hashes are seeded from the database on first read and expire after
+ * post-counters.ttl-minutes, which also bounds any drift.
+ *
+ * Seeding races with writers: a reader may load the row, a like then finds
+ * no hash to increment, and the reader stores the value without that like.
+ * An increment that finds no hash therefore leaves a short-lived marker
+ * ("post_counters:{id}:missed"), and seeding is skipped while it exists; the
+ * marker outlives a few buffer flushes, so other nodes' pending deltas are in
+ * the row by the time a seed is accepted again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostCounterService {
+
+    private static final String KEY_PREFIX = "post_counters:";
+    private static final String LIKES = "likes";
+    private static final String COMMENTS = "comments";
+
+    private static final String MISSED_SUFFIX = ":missed";
+
+    // Only adjust counters that are already seeded; otherwise mark the miss so no stale seed is stored
+    private static final DefaultRedisScript<Long> INCREMENT_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then "
+                    + "return redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) "
+                    + "end "
+                    + "redis.call('SET', KEYS[2], '1', 'EX', ARGV[3]) "
+                    + "return nil",
+            Long.class);
+
+    // KEYS: (hash, missed marker) pairs; ARGV: (likes, comments) pairs, then the TTL in seconds.
+    // A hash is only written when absent and no increment was missed recently.
+    private static final DefaultRedisScript<Long> SEED_IF_ABSENT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do "
+                    + "if redis.call('EXISTS', KEYS[i]) == 0 and redis.call('EXISTS', KEYS[i + 1]) == 0 then "
+                    + "redis.call('HSET', KEYS[i], 'likes', ARGV[i], 'comments', ARGV[i + 1]) "
+                    + "redis.call('EXPIRE', KEYS[i], ARGV[#ARGV]) "
+                    + "end "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PostRepository postRepository;
+    private final PostCounterBuffer postCounterBuffer;
+
+    @Value("${post-counters.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    // Must exceed post-counters.flush-interval-ms by a comfortable margin
+    @Value("${post-counters.missed-marker-seconds:10}")
+    private long missedMarkerSeconds;
+
+    // --- WRITE PATH (after commit, so a rollback never shows up in the counters) ---
+    // The posts row itself is updated write-behind by PostCounterBuffer.
+
+    public void adjustLikes(UUID postId, long delta) {
+        TransactionHooks.afterCommit(() -> {
+            postCounterBuffer.addLikes(postId, delta);
+            increment(postId, LIKES, delta);
+        });
+    }
+
+    public void adjustComments(UUID postId, long delta) {
+        TransactionHooks.afterCommit(() -> {
+            postCounterBuffer.addComments(postId, delta);
+            increment(postId, COMMENTS, delta);
+        });
+    }
+
+    // --- READ PATH ---
+
+    // Overwrites likeCount/commentCount of the given DTOs with the live values
+    public void applyCounters(List<? extends PostResponse> posts) {
+        if (posts.isEmpty())
+            return;
+
+        List<Object> values = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (PostResponse post : posts) {
+                    ops.opsForHash().multiGet(KEY_PREFIX + post.getId(), List.of(LIKES, COMMENTS));
+                }
+                return null;
+            }
+        });
+
+        List<UUID> missing = new ArrayList<>();
+        for (int i = 0; i < posts.size(); i++) {
+            PostResponse post = posts.get(i);
+            List<?> counters = (List<?>) values.get(i);
+            if (counters == null || counters.get(0) == null || counters.get(1) == null) {
+                missing.add(post.getId());
+                continue;
+            }
+            post.setLikeCount(Long.parseLong(counters.get(0).toString()));
+            post.setCommentCount(Long.parseLong(counters.get(1).toString()));
+        }
+
+        if (!missing.isEmpty()) {
+            Map<UUID, long[]> loaded = seed(missing);
+            for (PostResponse post : posts) {
+                long[] counts = loaded.get(post.getId());
+                if (counts != null) {
+                    post.setLikeCount(counts[0]);
+                    post.setCommentCount(counts[1]);
+                }
+            }
+        }
+    }
+
+    // --- HELPERS ---
+
+    private void increment(UUID postId, String field, long delta) {
+        try {
+            redisTemplate.execute(INCREMENT_IF_PRESENT,
+                    List.of(KEY_PREFIX + postId, KEY_PREFIX + postId + MISSED_SUFFIX),
+                    field, String.valueOf(delta), String.valueOf(missedMarkerSeconds));
+        } catch (RuntimeException e) {
+            // Drop the hash so the next read reseeds it from the database
+            log.warn("Failed to adjust {} counter for post {}", field, postId, e);
+            redisTemplate.delete(KEY_PREFIX + postId);
+        }
+    }
+
+    // One query for every post of the page that has no counters yet.
+    // The DB row lags by the deltas still sitting in the write-behind buffer.
+    private Map<UUID, long[]> seed(List<UUID> postIds) {
+        Map<UUID, long[]> result = new HashMap<>();
+        for (Object[] row : postRepository.findCountersByIdIn(postIds)) {
+            UUID id = (UUID) row[0];
+            result.put(id, new long[] {
+                    Math.max(0, (Long) row[1] + postCounterBuffer.pendingLikes(id)),
+                    Math.max(0, (Long) row[2] + postCounterBuffer.pendingComments(id)) });
+        }
+
+        if (result.isEmpty())
+            return result;
+
+        // One script call for the page; the values read are returned either way
+        List<String> keys = new ArrayList<>(result.size() * 2);
+        List<String> args = new ArrayList<>(result.size() * 2 + 1);
+        result.forEach((id, counts) -> {
+            keys.add(KEY_PREFIX + id);
+            keys.add(KEY_PREFIX + id + MISSED_SUFFIX);
+            args.add(String.valueOf(counts[0]));
+            args.add(String.valueOf(counts[1]));
+        });
+        args.add(String.valueOf(Duration.ofMinutes(ttlMinutes).toSeconds()));
+        redisTemplate.execute(SEED_IF_ABSENT, keys, args.toArray());
+        return result;
+    }
+}
@@ -0,0 +1,289 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.post.PostCursor;
+import com.blog._1.models.Post;
+import com.blog._1.utils.TransactionHooks;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over published posts, backed by a Postgres tsvector
+ * column with a GIN index (post_search_index, see SchemaMaintenance).
+ *
+ * Documents are weighted: title (A), description and tags (B), body (C).
+ * Post bodies are stored compressed (PostBodyService), so documents are
+ * built here rather than by a generated column, and refreshed whenever a
+ * post is finalized or edited. Deleted posts drop out by ON DELETE CASCADE.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostSearchService {
+
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERMS = 8;
+    private static final int BACKFILL_BATCH = 200;
+
+    private static final String UPSERT_SQL = "INSERT INTO post_search_index (post_id, document) VALUES (?, "
+            + "setweight(to_tsvector(CAST(? AS regconfig), ?), 'A') || "
+            + "setweight(to_tsvector(CAST(? AS regconfig), ?), 'B') || "
+            + "setweight(to_tsvector(CAST(? AS regconfig), ?), 'C')) "
+            + "ON CONFLICT (post_id) DO UPDATE SET document = EXCLUDED.document";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final PostBodyService postBodyService;
+
+    // "simple" does no stemming, which suits a multilingual blog; prefix matching covers most variants
+    @Value("${search.ts-config:simple}")
+    private String tsConfig;
+
+    @Value("${search.max-content-chars:200000}")
+    private int maxContentChars;
+
+    // --- INDEXING ---
+
+    // Reads committed state, so it is deferred until the caller's transaction commits
+    public void scheduleIndex(UUID postId) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                index(postId);
+            } catch (RuntimeException e) {
+                log.error("Failed to index post {} for search", postId, e);
+            }
+        });
+    }
+
+    public void index(UUID postId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT title, description, status FROM posts WHERE id = ?", postId);
+
+        if (rows.isEmpty() || !"PUBLISHED".equals(rows.get(0).get("status"))) {
+            remove(postId);
+            return;
+        }
+
+        Map<String, Object> row = rows.get(0);
+        List<String> tags = jdbcTemplate.queryForList(
+                "SELECT h.name FROM hashtags h JOIN post_hashtags ph ON ph.hashtag_id = h.id WHERE ph.post_id = ?",
+                String.class, postId);
+
+        String title = text(row.get("title"));
+        String secondary = text(row.get("description")) + " " + String.join(" ", tags);
+
+        jdbcTemplate.update(UPSERT_SQL, postId,
+                tsConfig, title,
+                tsConfig, secondary,
+                tsConfig, content(postId));
+    }
+
+    public void remove(UUID postId) {
+        jdbcTemplate.update("DELETE FROM post_search_index WHERE post_id = ?", postId);
+    }
+
+    // Indexes published posts that have no document yet (first deployment, failed updates)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE) // after SchemaMaintenance created the table
+    public void backfill() {
+        int indexed = 0;
+        List<UUID> batch;
+        do {
+            batch = jdbcTemplate.queryForList("SELECT p.id FROM posts p WHERE p.status = 'PUBLISHED' "
+                    + "AND NOT EXISTS (SELECT 1 FROM post_search_index s WHERE s.post_id = p.id) LIMIT ?",
+                    UUID.class, BACKFILL_BATCH);
+            for (UUID id : batch) {
+                try {
+                    index(id);
+                } catch (RuntimeException e) {
+                    // Stops the loop from retrying a broken post forever
+                    log.error("Search backfill failed for post {}", id, e);
+                    return;
+                }
+            }
+            indexed += batch.size();
+        } while (batch.size() == BACKFILL_BATCH);
+
+        if (indexed > 0)
+            log.info("Search index backfilled with {} posts", indexed);
+    }
+
+    // --- QUERYING ---
+
+    /**
+     * Turns free user input into a prefix tsquery ("spring boot" -> "spring:* & boot:*").
+     * Only letters and digits survive, so no tsquery syntax can be injected.
+     * Returns null when nothing searchable is left.
+     */
+    public String toTsQuery(String keyword) {
+        if (keyword == null || keyword.isBlank())
+            return null;
+
+        String query = Arrays.stream(TERM_SEPARATOR.split(keyword.toLowerCase()))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return query.isEmpty() ? null : query;
+    }
+
+    /**
+     * Ranked search: matches of the GIN index that also pass the search filters
+     * (author, tags, liked, followed), in rank order. Fetched as a slice
+     * (size + 1 rows); the total comes from {@link #countMatches} when asked for.
+     */
+    public Slice<UUID> searchRanked(String tsQuery, String author, List<String> tags,
+            Boolean liked, Boolean followed, UUID currentUserId, Pageable pageable) {
+        StringBuilder sql = new StringBuilder("SELECT p.id ");
+        List<Object> args = new ArrayList<>();
+        appendMatches(sql, args, tsQuery, author, tags, liked, followed, currentUserId);
+
+        sql.append("ORDER BY ts_rank_cd(s.document, q) DESC, p.created_at DESC, p.id DESC LIMIT ? OFFSET ?");
+        args.add(pageable.getPageSize() + 1);
+        args.add(pageable.getOffset());
+        List<UUID> ids = jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
+
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    // Exact number of matches for searchRanked, uncapped
+    public long countMatches(String tsQuery, String author, List<String> tags,
+            Boolean liked, Boolean followed, UUID currentUserId) {
+        StringBuilder sql = new StringBuilder("SELECT count(*) ");
+        List<Object> args = new ArrayList<>();
+        appendMatches(sql, args, tsQuery, author, tags, liked, followed, currentUserId);
+
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    // Filtered listing without keyword: newest first, ids only (size + 1 rows, no COUNT)
+    public Slice<UUID> filterIdSlice(Specification<Post> filters, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Post> root = query.from(Post.class);
+
+        // The filters use DISTINCT, so the sort keys must be selected too
+        query.multiselect(root.get("id"), root.get("createdAt"))
+                .where(filters.toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        List<UUID> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList().stream()
+                .map(t -> t.get(0, UUID.class))
+                .toList();
+
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    /**
+     * Newest matches past the cursor, for keyset scrolling. The search filters
+     * are part of the statement, so the walk is never cut short by a candidate cap.
+     */
+    public List<UUID> matchesAfter(String tsQuery, String author, List<String> tags,
+            Boolean liked, Boolean followed, UUID currentUserId, PostCursor cursor, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT p.id ");
+        List<Object> args = new ArrayList<>();
+        appendMatches(sql, args, tsQuery, author, tags, liked, followed, currentUserId);
+
+        Timestamp createdAt = Timestamp.valueOf(cursor.getCreatedAt());
+        sql.append("AND p.created_at <= ? AND (p.created_at < ? OR p.id < ?) "
+                + "ORDER BY p.created_at DESC, p.id DESC LIMIT ?");
+        args.add(createdAt);
+        args.add(createdAt);
+        args.add(cursor.getId());
+        args.add(limit);
+
+        return jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
+    }
+
+    // FROM/WHERE of published posts matching the query (as q) and the filters,
+    // with the same semantics as PostSpecification.buildSearchSpec
+    private void appendMatches(StringBuilder sql, List<Object> args, String tsQuery, String author,
+            List<String> tags, Boolean liked, Boolean followed, UUID currentUserId) {
+        sql.append("FROM post_search_index s JOIN posts p ON p.id = s.post_id ");
+
+        if (author != null && !author.isBlank()) {
+            sql.append("JOIN users u ON u.id = p.author_id AND lower(u.username) = ? ");
+            args.add(author.toLowerCase());
+        }
+
+        sql.append(", to_tsquery(CAST(? AS regconfig), ?) q WHERE s.document @@ q AND p.status = 'PUBLISHED' ");
+        args.add(tsConfig);
+        args.add(tsQuery);
+
+        if (tags != null && !tags.isEmpty()) {
+            sql.append("AND EXISTS (SELECT 1 FROM post_hashtags ph JOIN hashtags h ON h.id = ph.hashtag_id "
+                    + "WHERE ph.post_id = p.id AND h.name = ANY(CAST(? AS text[]))) ");
+            args.add(tags.stream().map(t -> t.toLowerCase().replace("#", "")).toArray(String[]::new));
+        }
+        if (Boolean.TRUE.equals(liked) && currentUserId != null) {
+            sql.append("AND EXISTS (SELECT 1 FROM post_likes l WHERE l.post_id = p.id AND l.user_id = ?) ");
+            args.add(currentUserId);
+        }
+        if (Boolean.TRUE.equals(followed) && currentUserId != null) {
+            sql.append("AND p.author_id IN (SELECT following_id FROM subscriptions WHERE follower_id = ?) ");
+            args.add(currentUserId);
+        }
+    }
+
+    // --- HELPERS ---
+
+    private String content(UUID postId) {
+        StringBuilder sb = new StringBuilder();
+        var body = postBodyService.index(postId);
+        if (body.isPresent()) {
+            // Window by window, so a long body is never inflated whole just to be truncated
+            try {
+                postBodyService.forEach(body.get(), (index, chunk) -> {
+                    if (sb.length() < maxContentChars)
+                        sb.append(chunk);
+                }, () -> sb.length() >= maxContentChars);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            // Truncated by the database, so only the indexed prefix is transferred
+            String chunks = jdbcTemplate.queryForObject(
+                    "SELECT left(string_agg(content, '' ORDER BY chunk_index), ?) FROM post_content_chunks "
+                            + "WHERE post_id = ?",
+                    String.class, maxContentChars, postId);
+            sb.append(text(chunks));
+        }
+        // tsvector values are limited to 1MB
+        return sb.length() > maxContentChars ? sb.substring(0, maxContentChars) : sb.toString();
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
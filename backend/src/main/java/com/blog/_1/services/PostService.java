@@ -4,10 +4,13 @@ import com.blog._1.dto.comment.CommentDTO;
 import com.blog._1.dto.post.*;
 import com.blog._1.models.*;
 import com.blog._1.repositories.*;
+import com.blog._1.utils.TransactionHooks;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -15,18 +18,27 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -40,10 +52,22 @@ public class PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final PostContentChunkRepository chunkRepository;
-    private final NotificationService notificationService;
-    private final SubscriptionRepository subscriptionRepository;
+    private final PostBodyService postBodyService;
+    private final ChunkUploadService chunkUploadService;
+    private final PostSearchService postSearchService;
+    private final HashtagLeaderboardService hashtagLeaderboardService;
+    private final NotificationPipeline notificationPipeline;
     private final SavedPostRepository savedPostRepository;
-    private final HashtagRepository hashtagRepository;
+    private final CommentRepository commentRepository;
+    private final HashtagService hashtagService;
+    private final PostTagLoader postTagLoader;
+    private final PageCountService pageCountService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TimelineService timelineService;
+    private final PostCounterService postCounterService;
+    private final UserInteractionCache userInteractionCache;
+    private final CacheManager cacheManager;
+    private final PlatformTransactionManager transactionManager;
 
     @Autowired
     private org.springframework.context.ApplicationContext applicationContext;
@@ -55,6 +79,18 @@ public class PostService {
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
+    @Value("${posts.single.initial-comments:20}")
+    private int initialComments;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 50;
+
+    private static final String TOGGLE_SAVE_SQL = "WITH removed AS ("
+            + "DELETE FROM saved_posts WHERE user_id = ? AND post_id = ? RETURNING 1), "
+            + "inserted AS (INSERT INTO saved_posts (id, user_id, post_id, created_at) "
+            + "SELECT ?, ?, ?, now() WHERE NOT EXISTS (SELECT 1 FROM removed) "
+            + "ON CONFLICT (user_id, post_id) DO NOTHING RETURNING 1) "
+            + "SELECT NOT EXISTS (SELECT 1 FROM removed)";
+
     // --- UTILS ---
     private String saveFile(MultipartFile file) {
         try {
@@ -119,9 +155,10 @@ public class PostService {
 
     // --- POST LOGIC ---
 
+    // Edits never change page membership: only this post's card is evicted
     @Caching(evict = {
             @CacheEvict(value = "single_post", key = "#postId"),
-            @CacheEvict(value = "post_pages", allEntries = true),
+            @CacheEvict(value = "post_cards", key = "#postId"),
             @CacheEvict(value = "single_user", key = "#userId")
     })
     public PostResponse patch(UUID postId, UUID userId, PostPatchRequest req) {
@@ -140,6 +177,7 @@ public class PostService {
         }
 
         Post updated = postRepository.save(post);
+        postSearchService.scheduleIndex(postId);
         return PostResponse.from(updated);
     }
 
@@ -173,71 +211,108 @@ public class PostService {
         if (!post.getAuthor().getId().equals(userId))
             throw new RuntimeException("Unauthorized");
 
-        PostContentChunk chunk = PostContentChunk.builder()
-                .post(post)
-                .chunkIndex(request.getIndex())
-                .content(request.getContent())
-                .build();
-        chunkRepository.save(chunk);
+        // Editing a published post: back to the chunked layout until the next finalize
+        postBodyService.expand(post.getId());
+
+        // Upsert on (post_id, chunk_index): a retried chunk replaces itself
+        chunkUploadService.upsert(post.getId(), request.getIndex(), request.getContent());
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "post_pages", allEntries = true),
             @CacheEvict(value = "single_user", key = "#userId")
-    }) // when a new post is created here it enssure to wipe cash
+    }) // a new post shifts every offset page, so the id pages are wiped here
 
     public PostResponse finalizePost(UUID postId, UUID userId, int expectedTotalChunks) {
         Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
         if (!post.getAuthor().getId().equals(userId))
             throw new RuntimeException("Unauthorized");
 
-        long actualCount = chunkRepository.countByPostId(postId);
-        if (actualCount != expectedTotalChunks)
-            throw new RuntimeException("Upload incomplete");
+        // Exactly chunks 0..expectedTotalChunks-1, whatever order they arrived in
+        chunkUploadService.validateComplete(postId, expectedTotalChunks);
 
+        boolean firstPublication = post.getStatus() != PostStatus.PUBLISHED;
         post.setStatus(PostStatus.PUBLISHED);
+        if (firstPublication) {
+            post.setPublishedAt(LocalDateTime.now());
+        }
         Post savedPost = postRepository.save(post);
 
-        Pageable pageable = PageRequest.of(0, 500);
-        List<User> followers = subscriptionRepository.findByFollowingId(userId, pageable)
-                .stream().map(Subscription::getFollower).collect(Collectors.toList());
-
-        if (!followers.isEmpty()) {
-            notificationService.notifyFollowers(savedPost, followers);
+        // Deferred to after commit, like the index and fan-out below
+        if (firstPublication) {
+            hashtagLeaderboardService.onPublished(tagNames(savedPost.getHashtags()), savedPost.getPublishedAt());
         }
 
+        // Published bodies are stored compacted and compressed, drafts stay chunked
+        postBodyService.compact(postId);
+        postSearchService.scheduleIndex(postId);
+
+        // Follower notifications and home timeline pushes (fan-out-on-write)
+        // run off-thread once this commits
+        notificationPipeline.submit(savedPost);
+
         return PostResponse.from(savedPost);
     }
 
-    @Cacheable(value = "post_pages", key = "'all_' + #page + '_' + #size")
-    public CacheablePage<PostResponse> getBaseAllPosts(int page, int size) {
+    // Home feed built from the materialized timeline, keyset paginated
+    public CursorPage<PostResponse> getFeed(UUID userId, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        List<Post> posts = timelineService.readFeed(userId, PostCursor.decode(cursor), pageSize);
+        return toCursorPage(posts, pageSize);
+    }
+
+    // Expects up to size + 1 posts; the extra one only tells us there is a next page
+    private CursorPage<PostResponse> toCursorPage(List<Post> posts, int size) {
+        boolean hasNext = posts.size() > size;
+        List<Post> page = hasNext ? posts.subList(0, size) : posts;
+
+        List<PostResponse> content = toResponses(page);
+
+        enrichWithUserInteraction(content);
+
+        String nextCursor = hasNext ? PostCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    // Pages only hold post ids: likes/comments/edits never invalidate them,
+    // only new or deleted posts do (they shift page membership).
+    @Cacheable(value = "post_pages", key = "'ids_' + #page + '_' + #size")
+    // Ids are kept as strings: UUID is final, so Jackson default typing would read them back as String anyway
+    // No COUNT here: totalElements only records whether a next page exists (see getAll)
+    public CacheablePage<String> getBaseAllPosts(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
 
-        Page<Post> postsPage = postRepository.findByStatus(PostStatus.PUBLISHED, pageable);
+        Slice<UUID> idsSlice = postRepository.findIdSliceByStatus(PostStatus.PUBLISHED, pageable);
 
-        List<PostResponse> content = postsPage.getContent().stream()
-                .map(PostResponse::from)
+        List<String> ids = idsSlice.getContent().stream()
+                .map(UUID::toString)
                 .collect(Collectors.toList());
-
-        // Return pure DTO, safe for Redis serialization
-        return new CacheablePage<>(content, pageable.getPageNumber(), pageable.getPageSize(),
-                postsPage.getTotalElements());
+        return new CacheablePage<>(ids, pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getOffset() + ids.size() + (idsSlice.hasNext() ? 1 : 0));
     }
 
     // --- GETTERS ---
-    public Page<PostResponse> getAll(int page, int size) {
-        // 1. Fetch the safe CacheablePage from Redis
-        CacheablePage<PostResponse> cachedPage = getSelf().getBaseAllPosts(page, size);
+    public Page<PostResponse> getAll(int page, int size, PageCountService.Mode countMode) {
+        // 1. Fetch the cached id page
+        CacheablePage<String> cachedPage = getSelf().getBaseAllPosts(page, size);
 
-        // 2. Enrich with user data (mutating the DTO is now SAFE because Redis
-        // deserializes a fresh copy every time)
-        enrichWithUserInteraction(cachedPage.getContent());
+        // 2. Resolve bodies from post_cards and overlay the live counters
+        List<UUID> ids = cachedPage.getContent().stream()
+                .map(UUID::fromString)
+                .collect(Collectors.toList());
+        List<PostResponse> content = resolveCards(ids);
+        postCounterService.applyCounters(content);
+
+        // 3. Enrich with user data
+        enrichWithUserInteraction(content);
 
-        // 3. Convert back to Spring Data PageImpl to satisfy Controller/Frontend
-        // contract
+        // 4. Convert back to Spring Data PageImpl to satisfy Controller/Frontend
+        // contract, with the total computed as the caller asked
         Pageable pageable = PageRequest.of(cachedPage.getPageNumber(), cachedPage.getPageSize());
-        return new PageImpl<>(cachedPage.getContent(), pageable, cachedPage.getTotalElements());
+        boolean hasNext = cachedPage.getTotalElements() > pageable.getOffset() + ids.size();
+        return pageCountService.toPage(content, pageable, hasNext, countMode, "posts:published", null,
+                () -> postRepository.countByStatus(PostStatus.PUBLISHED));
     }
 
     public List<PostResponse> getByUser(UUID userId, int page, int size) {
@@ -247,11 +322,8 @@ public class PostService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("updatedAt").descending());
 
         // Call the new cleaner Repo method
-        List<PostResponse> posts = postRepository
-                .findByAuthorIdAndStatus(userId, PostStatus.PUBLISHED, pageable)
-                .stream()
-                .map(PostResponse::from)
-                .collect(Collectors.toList());
+        List<PostResponse> posts = toResponses(postRepository
+                .findByAuthorIdAndStatus(userId, PostStatus.PUBLISHED, pageable));
 
         enrichWithUserInteraction(posts);
         return posts;
@@ -266,20 +338,67 @@ public class PostService {
         // sort.
         Pageable pageable = PageRequest.of(0, 100, Sort.by("updatedAt").descending());
 
-        return postRepository.findByAuthorIdAndStatus(userId, PostStatus.DRAFT, pageable)
-                .stream()
-                .map(PostResponse::from)
-                .collect(Collectors.toList());
+        return toResponses(postRepository.findByAuthorIdAndStatus(userId, PostStatus.DRAFT, pageable));
     }
 
     public List<PostResponse> getSavedPosts(UUID userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         List<SavedPost> savedPosts = savedPostRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return savedPosts.stream().map(sp -> {
-            PostResponse resp = PostResponse.from(sp.getPost());
-            resp.setSavedByCurrentUser(true);
-            return resp;
-        }).collect(Collectors.toList());
+        List<PostResponse> posts = toResponses(savedPosts.stream().map(SavedPost::getPost).toList());
+        posts.forEach(resp -> resp.setSavedByCurrentUser(true));
+        return posts;
+    }
+
+    /**
+     * Resolves post cards (PostResponse without per-user flags) from the
+     * post_cards cache, loading all misses in one query. Keeps the order of
+     * the ids and silently skips posts that no longer exist.
+     * Returned DTOs are per-request copies and safe to mutate.
+     */
+    private List<PostResponse> resolveCards(List<UUID> ids) {
+        Cache cards = cacheManager.getCache("post_cards");
+        Map<UUID, PostResponse> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+
+        for (UUID id : ids) {
+            PostResponse card = cards.get(id, PostResponse.class);
+            if (card != null) {
+                found.put(id, card);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            // Projection straight into the DTO: no entities, no lazy hashtags.
+            // Read-only transaction (no flush, no dirty checks) around the misses only:
+            // a fully cached page never takes a pooled connection
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            List<PostResponse> loaded = readOnly.execute(status -> {
+                List<PostResponse> projected = postRepository.findCardsByIdInAndStatus(missing, PostStatus.PUBLISHED);
+                postTagLoader.attach(projected);
+                return projected;
+            });
+            for (PostResponse card : loaded) {
+                cards.put(card.getId(), card);
+                found.put(card.getId(), card);
+            }
+        }
+
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(PostResponse::copy)
+                .collect(Collectors.toList());
+    }
+
+    // Entity listings: tags come from one page-level query, never from the lazy collection
+    private List<PostResponse> toResponses(List<Post> posts) {
+        Map<UUID, Set<String>> tags = postTagLoader.load(posts.stream().map(Post::getId).toList());
+        return posts.stream()
+                .map(post -> PostResponse.from(post, tags.getOrDefault(post.getId(), new HashSet<>())))
+                .collect(Collectors.toList());
     }
 
     // Used later or never...
@@ -304,6 +423,16 @@ public class PostService {
             if (postIds.isEmpty())
                 return;
 
+            UserInteractionCache.Interactions interactions = userInteractionCache.get(userId);
+            if (interactions != null) {
+                for (PostResponse post : posts) {
+                    post.setSavedByCurrentUser(interactions.isSaved(post.getId()));
+                    post.setLikedByCurrentUser(interactions.isLiked(post.getId()));
+                }
+                return;
+            }
+
+            // Too many interactions to be cached: ask the database for this page only
             Set<UUID> savedPostIds = savedPostRepository.findPostIdsByUserIdAndPostIdIn(userId, postIds);
 
             Set<UUID> likedPostIds = likeRepository.findPostIdsByUserIdAndPostIdIn(userId, postIds);
@@ -315,42 +444,32 @@ public class PostService {
         }
     }
 
+    // Three bounded queries (post + author, tags, first comments + authors), all DTO projections.
+    // Older comments are paged through CommentService.getComments.
     @Cacheable(value = "single_post", key = "#id")
     public SinglePostResponse getBaseSinglePost(UUID id) {
-        Post post = postRepository.findById(id).orElseThrow(() -> new RuntimeException("Post not found"));
-        SinglePostResponse dto = new SinglePostResponse();
-        PostResponse base = PostResponse.from(post);
-
-        dto.setId(base.getId());
-        dto.setTitle(base.getTitle());
-        dto.setDescription(base.getDescription());
-        dto.setMediaUrl(base.getMediaUrl());
-        dto.setMediaType(base.getMediaType());
-        dto.setCreatedAt(base.getCreatedAt());
-        dto.setUpdatedAt(base.getUpdatedAt());
-        dto.setAuthor(base.getAuthor());
-        dto.setLikeCount(base.getLikeCount());
-        dto.setCommentCount(base.getCommentCount());
-        dto.setTags(base.getTags());
-
-        if (post.getComments() != null) {
-            dto.setComments(post.getComments().stream().map(CommentDTO::from).collect(Collectors.toList()));
-        }
+        PostResponse base = postRepository.findResponseById(id)
+                .orElseThrow(() -> new RuntimeException("Post not found"));
+        postTagLoader.attach(List.of(base));
 
-        return dto;
+        List<CommentDTO> comments = commentRepository.findDtosByPostId(id,
+                PageRequest.of(0, initialComments, Sort.by("createdAt").descending()));
+        return SinglePostResponse.of(base, comments);
     }
 
     public SinglePostResponse get(UUID id) {
-        // Since Redis uses Jackson serialization, `cachedBase` is a newly constructed
-        // object in memory.
-        // Modifying it will NOT cause cache poisoning. We no longer need to manually
-        // copy fields!
-        SinglePostResponse cachedBase = getSelf().getBaseSinglePost(id);
+        // The near-cache returns the same instance to every caller, so copy it
+        // before setting the per-user flags (otherwise: cache poisoning).
+        SinglePostResponse cachedBase = getSelf().getBaseSinglePost(id).copy();
+        postCounterService.applyCounters(List.of(cachedBase));
 
         var auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof User u) {
-            cachedBase.setLikedByCurrentUser(likeRepository.existsByPostIdAndUserId(id, u.getId()));
-            cachedBase.setSavedByCurrentUser(savedPostRepository.existsByUserIdAndPostId(u.getId(), id));
+            UserInteractionCache.Interactions interactions = userInteractionCache.get(u.getId());
+            cachedBase.setLikedByCurrentUser(interactions != null ? interactions.isLiked(id)
+                    : likeRepository.existsByPostIdAndUserId(id, u.getId()));
+            cachedBase.setSavedByCurrentUser(interactions != null ? interactions.isSaved(id)
+                    : savedPostRepository.existsByUserIdAndPostId(u.getId(), id));
         } else {
             cachedBase.setLikedByCurrentUser(false);
             cachedBase.setSavedByCurrentUser(false);
@@ -366,23 +485,42 @@ public class PostService {
         if (!post.getAuthor().getId().equals(userId))
             throw new RuntimeException("Unauthorized");
         chunkRepository.deleteByPostId(postId);
+        postBodyService.delete(postId);
+        postSearchService.scheduleIndex(postId);
+        // Invalidates the content ETag even if the same number of chunks is re-uploaded
+        post.setUpdatedAt(LocalDateTime.now());
     }
 
-    @Transactional
+    // Single statement: removes the bookmark if present, otherwise inserts it.
+    // Returns the resulting state; a concurrent insert of the same bookmark counts as saved.
     public boolean toggleSave(UUID postId, UUID userId) {
-        if (savedPostRepository.existsByUserIdAndPostId(userId, postId)) {
-            savedPostRepository.deleteByUserIdAndPostId(userId, postId);
-            return false;
-        } else {
-            User user = userRepository.getReferenceById(userId);
-            Post post = postRepository.getReferenceById(postId);
-            savedPostRepository.save(SavedPost.builder().user(user).post(post).build());
-            return true;
-        }
+        boolean saved = Boolean.TRUE.equals(jdbcTemplate.queryForObject(TOGGLE_SAVE_SQL, Boolean.class,
+                userId, postId, UUID.randomUUID(), userId, postId));
+        userInteractionCache.onSaveChanged(userId, postId, saved);
+        return saved;
     }
 
     @Cacheable(value = "post_chunks", key = "#postId.toString() + '_' + #page + '_' + #size")
     public List<PostChunkResponse> getContentChunks(UUID postId, int page, int size) {
+        var body = postBodyService.index(postId);
+        if (body.isPresent()) {
+            // Compacted body: inflate only the frames of the requested page
+            int total = body.get().chunkCount();
+            int from = Math.min(page * size, total);
+            int to = Math.min(from + size, total);
+            List<String> contents = postBodyService.read(body.get(), from, to);
+
+            List<PostChunkResponse> result = new ArrayList<>(contents.size());
+            for (int i = 0; i < contents.size(); i++) {
+                result.add(PostChunkResponse.builder()
+                        .index(from + i)
+                        .content(contents.get(i))
+                        .isLast(from + i + 1 == total)
+                        .build());
+            }
+            return result;
+        }
+
         Pageable pageable = PageRequest.of(page, size);
         List<PostContentChunk> chunks = chunkRepository.findByPostIdOrderByChunkIndexAsc(postId, pageable);
         long totalChunks = chunkRepository.countByPostId(postId);
@@ -396,26 +534,34 @@ public class PostService {
 
     @Caching(evict = {
             @CacheEvict(value = "single_post", key = "#postId"),
+            @CacheEvict(value = "post_cards", key = "#postId"),
             @CacheEvict(value = "post_pages", allEntries = true),
     })
+    @Transactional
     public void delete(UUID postId, UUID userId, boolean isAdmin) {
         Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("Not found"));
 
         if (!isAdmin && !post.getAuthor().getId().equals(userId))
             throw new RuntimeException("Unauthorized");
 
-        // CLEANUP: Delete the associated image from disk
-        if (post.getMediaUrl() != null) {
-            deleteFileFromDisk(post.getMediaUrl());
+        // Leaderboard and disk cleanup run once the delete has committed
+        if (post.getStatus() == PostStatus.PUBLISHED) {
+            hashtagLeaderboardService.onRemoved(tagNames(post.getHashtags()), publishedAt(post));
         }
         postRepository.delete(post);
+
+        String mediaUrl = post.getMediaUrl();
+        if (mediaUrl != null) {
+            TransactionHooks.afterCommit(() -> deleteFileFromDisk(mediaUrl));
+        }
     }
 
     @Caching(evict = {
             @CacheEvict(value = "single_post", key = "#postId"),
-            @CacheEvict(value = "post_pages", allEntries = true),
+            @CacheEvict(value = "post_cards", key = "#postId"),
             @CacheEvict(value = "single_user", key = "#userId"),
     })
+    @Transactional
     public PostResponse update(UUID postId, UUID userId, PostCreateRequest request) {
         Post post = postRepository.findById(postId).orElseThrow();
         if (!post.getAuthor().getId().equals(userId))
@@ -427,76 +573,165 @@ public class PostService {
             post.setMediaType(request.getMediaType());
 
         if (request.getMediaUrl() != null && !request.getMediaUrl().equals(post.getMediaUrl())) {
-            deleteFileFromDisk(post.getMediaUrl());
+            String replacedUrl = post.getMediaUrl();
+            TransactionHooks.afterCommit(() -> deleteFileFromDisk(replacedUrl));
             post.setMediaUrl(request.getMediaUrl());
         }
 
         if (request.getTags() != null) {
+            Set<String> oldTags = tagNames(post.getHashtags());
             post.setHashtags(processHashtags(request.getTags()));
+
+            if (post.getStatus() == PostStatus.PUBLISHED) {
+                Set<String> newTags = tagNames(post.getHashtags());
+                Set<String> removed = new HashSet<>(oldTags);
+                removed.removeAll(newTags);
+                newTags.removeAll(oldTags);
+                hashtagLeaderboardService.onRetagged(removed, newTags, publishedAt(post));
+            }
         }
 
-        return PostResponse.from(postRepository.save(post));
+        Post saved = postRepository.save(post);
+        postSearchService.scheduleIndex(postId);
+        return PostResponse.from(saved);
     }
 
-    private Set<Hashtag> processHashtags(List<String> tagNames) {
-        Set<Hashtag> hashtags = new HashSet<>();
-        if (tagNames == null || tagNames.isEmpty())
-            return hashtags;
-
-        for (String name : tagNames) {
-            String cleanName = name.replaceAll("\\s+", "").replace("#", "_").toLowerCase();
-
-            if (cleanName.isBlank())
-                continue;
+    // Published before published_at was recorded and not backfilled yet: creation time is the best estimate
+    private static LocalDateTime publishedAt(Post post) {
+        return post.getPublishedAt() != null ? post.getPublishedAt() : post.getCreatedAt();
+    }
 
-            // 2. Find or Create
-            Hashtag tag = hashtagRepository.findByName(cleanName)
-                    .orElseGet(() -> hashtagRepository.save(
-                            Hashtag.builder().name(cleanName).build()));
+    private static Set<String> tagNames(Set<Hashtag> hashtags) {
+        return hashtags.stream().map(Hashtag::getName).collect(Collectors.toCollection(HashSet::new));
+    }
 
-            hashtags.add(tag);
-        }
-        return hashtags;
+    private Set<Hashtag> processHashtags(List<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty())
+            return new HashSet<>();
+        return hashtagService.resolveOrCreate(tagNames);
     }
 
-    public Page<PostResponse> getByTag(String tagName, int page, int size) {
+    public Page<PostResponse> getByTag(String tagName, int page, int size, PageCountService.Mode countMode) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
 
         // Sanitize the tag (frontend might send "#Tech" or just "Tech")
         String cleanTag = tagName.trim().replace("#", "").toLowerCase();
 
-        // 1. Fetch Entities (Only Published ones)
-        Page<Post> postsPage = postRepository.findByHashtags_NameAndStatus(
+        // 1. Fetch the ids (Only Published ones), without the COUNT query
+        Slice<UUID> idsSlice = postRepository.findIdSliceByHashtagAndStatus(
                 cleanTag,
                 PostStatus.PUBLISHED,
                 pageable);
 
-        // 2. Map to DTO
-        Page<PostResponse> dtoPage = postsPage.map(PostResponse::from);
+        // 2. Resolve the cards and overlay the live counters
+        List<PostResponse> content = resolveCards(idsSlice.getContent());
+        postCounterService.applyCounters(content);
 
         // 3. Enrich with User Interaction (Likes/Saves)
-        enrichWithUserInteraction(dtoPage.getContent());
+        enrichWithUserInteraction(content);
 
-        return dtoPage;
+        return pageCountService.toPage(content, pageable, idsSlice.hasNext(), countMode, "posts:tag:" + cleanTag,
+                null, () -> postRepository.countByHashtags_NameAndStatus(cleanTag, PostStatus.PUBLISHED));
     }
 
     public Page<PostResponse> searchPosts(String keyword, String author, List<String> tags,
             Boolean liked, Boolean followed, UUID currentUserId,
-            int page, int size) {
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            int page, int size, PageCountService.Mode countMode) {
 
         var spec = com.blog._1.specifications.PostSpecification.buildSearchSpec(
-                keyword, author, tags, liked, followed, currentUserId);
+                author, tags, liked, followed, currentUserId);
+
+        // Filters are part of the count key; "liked"/"followed" depend on the caller
+        String countKey = author + ":" + tags + ":" + liked + ":" + followed + ":"
+                + (Boolean.TRUE.equals(liked) || Boolean.TRUE.equals(followed) ? currentUserId : "");
+
+        // Keywords go through the full-text index: results are ranked by relevance
+        String tsQuery = postSearchService.toTsQuery(keyword);
+        if (tsQuery != null) {
+            Pageable pageable = PageRequest.of(page, size);
+            Slice<UUID> ids = postSearchService.searchRanked(tsQuery, author, tags, liked, followed,
+                    currentUserId, pageable);
+
+            List<PostResponse> content = resolveCards(ids.getContent());
+            postCounterService.applyCounters(content);
+            enrichWithUserInteraction(content);
+
+            return pageCountService.toPage(content, pageable, ids.hasNext(), countMode,
+                    "posts:search:fts:" + tsQuery + ":" + countKey, null,
+                    () -> postSearchService.countMatches(tsQuery, author, tags, liked, followed, currentUserId));
+        }
 
-        Page<Post> postsPage = postRepository.findAll(spec, pageable);
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
 
-        List<PostResponse> content = postsPage.getContent().stream()
-                .map(PostResponse::from)
-                .collect(Collectors.toList());
+        Slice<UUID> idsSlice = postSearchService.filterIdSlice(spec, pageable);
 
+        List<PostResponse> content = resolveCards(idsSlice.getContent());
+        postCounterService.applyCounters(content);
         enrichWithUserInteraction(content);
 
-        return new org.springframework.data.domain.PageImpl<>(content, pageable, postsPage.getTotalElements());
+        return pageCountService.toPage(content, pageable, idsSlice.hasNext(), countMode, "posts:search:" + countKey,
+                null, () -> postRepository.count(spec));
+    }
+
+    // --- CURSOR (KEYSET) LISTINGS ---
+    // Same listings as above without OFFSET and without COUNT(*): each call seeks
+    // past the cursor and fetches size + 1 rows to know whether a next page exists.
+
+    public CursorPage<PostResponse> scrollAll(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        PostCursor c = PostCursor.decode(cursor);
+
+        List<Post> posts = postRepository.findByStatusAfterCursor(PostStatus.PUBLISHED,
+                c.getCreatedAt(), c.getId(), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(posts, pageSize);
+    }
+
+    public CursorPage<PostResponse> scrollByUser(UUID userId, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        PostCursor c = PostCursor.decode(cursor);
+
+        List<Post> posts = postRepository.findByAuthorIdAndStatusAfterCursor(userId, PostStatus.PUBLISHED,
+                c.getCreatedAt(), c.getId(), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(posts, pageSize);
+    }
+
+    public CursorPage<PostResponse> scrollByTag(String tagName, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        PostCursor c = PostCursor.decode(cursor);
+        String cleanTag = tagName.trim().replace("#", "").toLowerCase();
+
+        List<Post> posts = postRepository.findByHashtagAndStatusAfterCursor(cleanTag, PostStatus.PUBLISHED,
+                c.getCreatedAt(), c.getId(), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(posts, pageSize);
+    }
+
+    public CursorPage<PostResponse> scrollSearch(String keyword, String author, List<String> tags,
+            Boolean liked, Boolean followed, UUID currentUserId,
+            String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        PostCursor c = PostCursor.decode(cursor);
+
+        // Scrolling stays in date order: keyword and filters are matched in one
+        // statement that seeks past the cursor, then the page is loaded by id
+        String tsQuery = postSearchService.toTsQuery(keyword);
+        if (tsQuery != null) {
+            List<UUID> matches = postSearchService.matchesAfter(tsQuery, author, tags, liked, followed,
+                    currentUserId, c, pageSize + 1);
+            if (matches.isEmpty())
+                return new CursorPage<>(List.of(), null, false);
+            Map<UUID, Post> byId = postRepository.findWithAuthorByIdInAndStatus(matches, PostStatus.PUBLISHED)
+                    .stream()
+                    .collect(Collectors.toMap(Post::getId, p -> p));
+            return toCursorPage(matches.stream().map(byId::get).filter(Objects::nonNull).toList(), pageSize);
+        }
+
+        var spec = com.blog._1.specifications.PostSpecification.buildSearchSpec(
+                author, tags, liked, followed, currentUserId)
+                .and(com.blog._1.specifications.PostSpecification.afterCursor(c));
+
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        List<Post> posts = postRepository.findBy(spec, q -> q.sortBy(sort).limit(pageSize + 1).all());
+
+        return toCursorPage(posts, pageSize);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.post.PostResponse;
+import com.blog._1.repositories.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resolves the tag names of a whole page of posts in one query, instead of
+ * one lazy post_hashtags load per post (Post.hashtags).
+ */
+@Service
+@RequiredArgsConstructor
+public class PostTagLoader {
+
+    private final PostRepository postRepository;
+
+    // post id -> tag names; posts without tags are absent from the map
+    public Map<UUID, Set<String>> load(Collection<UUID> postIds) {
+        Map<UUID, Set<String>> tags = new HashMap<>();
+        if (postIds.isEmpty())
+            return tags;
+
+        for (Object[] row : postRepository.findTagNamesByPostIdIn(postIds)) {
+            tags.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        return tags;
+    }
+
+    // Sets the tags of already built DTOs (e.g. JPQL projections)
+    public void attach(List<? extends PostResponse> posts) {
+        Map<UUID, Set<String>> tags = load(posts.stream().map(PostResponse::getId).toList());
+        for (PostResponse post : posts) {
+            post.setTags(tags.getOrDefault(post.getId(), new HashSet<>()));
+        }
+    }
+}
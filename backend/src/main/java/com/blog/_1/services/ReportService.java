@@ -27,7 +27,7 @@ public class ReportService {
 
         Report report = new Report();
         report.setReason(req.getReason());
-        report.setReporter(reporter);
+        report.setReporter(userRepository.getReferenceById(reporter.getId()));
         report.setReportedUser(reportedUser);
 
         return toResponse(reportRepository.save(report));
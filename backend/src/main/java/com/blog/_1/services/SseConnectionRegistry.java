@@ -0,0 +1,229 @@
+package com.blog._1.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open SSE connections of this node, several per user (one per tab/device).
+ *
+ * Every connection owns a small outbound queue drained by its own virtual
+ * thread, so {@link #send} never blocks: a slow client only fills its own
+ * queue and gets disconnected when it overflows (the browser reconnects).
+ *
+ * Events are also relayed to the other nodes over Redis pub/sub, so a
+ * notification created anywhere reaches the node holding the connection.
+ * Message format: "nodeId|userId|eventName|jsonPayload".
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SseConnectionRegistry implements MessageListener {
+
+    public static final String RELAY_CHANNEL = "sse:events";
+
+    // SseEventBuilder is mutable and single-use, so queues hold this and build per send
+    private record OutboundEvent(String name, String json) {
+
+        static final OutboundEvent HEARTBEAT = new OutboundEvent(null, null);
+
+        SseEventBuilder toSse() {
+            if (name == null)
+                return SseEmitter.event().comment("heartbeat");
+            return SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${sse.outbound-queue-size:64}")
+    private int outboundQueueSize;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<UUID, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @PostConstruct
+    void subscribeRelay() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELAY_CHANNEL));
+    }
+
+    @PreDestroy
+    void closeAll() {
+        connections.values().forEach(set -> set.forEach(Connection::close));
+        connections.clear();
+    }
+
+    // --- Connections ---
+
+    public SseEmitter register(UUID userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+
+        // Added inside compute(): remove() may drop an emptied set concurrently (tab reload),
+        // and a connection added to that orphaned set would never receive events
+        connections.compute(userId, (id, set) -> {
+            Set<Connection> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(connection);
+            return target;
+        });
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        connection.start();
+        return emitter;
+    }
+
+    private void remove(Connection connection) {
+        connection.close();
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public int connectionCount() {
+        return connections.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // --- Delivery ---
+
+    /**
+     * Delivers an event to every connection of the user, on this node and
+     * (through Redis) on the others. Never blocks on a client socket.
+     */
+    public void send(UUID userId, String eventName, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize SSE payload for user {}", userId, e);
+            return;
+        }
+
+        sendLocal(userId, eventName, json);
+
+        try {
+            redisTemplate.convertAndSend(RELAY_CHANNEL,
+                    nodeId + "|" + userId + "|" + eventName + "|" + json);
+        } catch (RuntimeException e) {
+            log.warn("Failed to relay SSE event for user {}", userId, e);
+        }
+    }
+
+    // The payload is serialized once and shared by all connections of the user
+    private void sendLocal(UUID userId, String eventName, String json) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null)
+            return;
+
+        OutboundEvent event = new OutboundEvent(eventName, json);
+        for (Connection connection : userConnections) {
+            if (!connection.offer(event)) {
+                log.debug("Dropping slow SSE connection of user {}", userId);
+                remove(connection);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length != 4 || nodeId.equals(parts[0]))
+            return;
+
+        try {
+            sendLocal(UUID.fromString(parts[1]), parts[2], parts[3]);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed SSE relay message");
+        }
+    }
+
+    // Proxies silently drop idle streams; a comment frame keeps them open and
+    // surfaces dead sockets as write errors, which evict the connection
+    @Scheduled(fixedDelayString = "${sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connections.values().forEach(set -> set.forEach(connection -> {
+            if (!connection.offer(OutboundEvent.HEARTBEAT)) {
+                remove(connection);
+            }
+        }));
+    }
+
+    // --- One client connection ---
+
+    private final class Connection {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<OutboundEvent> outbound = new ArrayBlockingQueue<>(outboundQueueSize);
+        private volatile boolean open = true;
+        private Thread writer;
+
+        Connection(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void start() {
+            writer = Thread.ofVirtual().name("sse-" + userId).start(this::drain);
+        }
+
+        boolean offer(OutboundEvent event) {
+            return open && outbound.offer(event);
+        }
+
+        void close() {
+            if (!open)
+                return;
+            open = false;
+            if (writer != null)
+                writer.interrupt();
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // already completed by the container
+            }
+        }
+
+        private void drain() {
+            try {
+                while (open) {
+                    emitter.send(outbound.take().toSse());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Broken pipe, completed emitter, ...: the client is gone
+                remove(this);
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
+    private final TimelineService timelineService;
 
     // Inject CacheManager to handle eviction programmatically
     private final CacheManager cacheManager;
@@ -43,11 +44,14 @@ public class SubscriptionService {
         User following = userRepository.getReferenceById(targetUserId);
 
         Subscription sub = new Subscription();
-        sub.setFollower(follower);
+        sub.setFollower(userRepository.getReferenceById(follower.getId()));
         sub.setFollowing(following);
 
         subscriptionRepository.save(sub);
 
+        // Seed the home timeline with the author's recent posts
+        timelineService.backfill(follower.getId(), targetUserId);
+
         // EVICT CACHES to update follower/following counts
         evictSubscriptionCaches(follower.getId(), targetUserId);
     }
@@ -59,6 +63,7 @@ public class SubscriptionService {
         subscriptionRepository.findByFollowerIdAndFollowingId(follower.getId(), targetUserId)
                 .ifPresent(sub -> {
                     subscriptionRepository.delete(sub);
+                    timelineService.prune(follower.getId(), targetUserId);
                     // EVICT CACHES to update follower/following counts
                     evictSubscriptionCaches(follower.getId(), targetUserId);
                 });
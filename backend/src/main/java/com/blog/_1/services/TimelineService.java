@@ -0,0 +1,227 @@
+package com.blog._1.services;
+
+import com.blog._1.dto.post.PostCursor;
+import com.blog._1.models.Post;
+import com.blog._1.models.PostStatus;
+import com.blog._1.repositories.PostRepository;
+import com.blog._1.repositories.SubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Materialized home timelines: one Redis sorted set per user
+ * (member = post id, score = post createdAt in epoch millis), capped at
+ * timeline.max-size entries.
+ *
+ * The fan-out on write runs after commit on the NotificationPipeline workers,
+ * which stream the followers in keyset batches and hand each batch to {@link #push}.
+ * Authors with more followers than timeline.heavy-author-threshold are not
+ * fanned out on write; their posts are merged in from the database at read time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelineService {
+
+    private static final String TIMELINE_KEY = "timeline:";
+    private static final String HEAVY_AUTHORS_KEY = "timeline:heavy_authors";
+
+    private final StringRedisTemplate redisTemplate;
+    private final SubscriptionRepository subscriptionRepository;
+    private final PostRepository postRepository;
+
+    @Value("${timeline.max-size:800}")
+    private int maxSize;
+
+    @Value("${timeline.heavy-author-threshold:5000}")
+    private long heavyAuthorThreshold;
+
+    @Value("${timeline.backfill-size:50}")
+    private int backfillSize;
+
+    // --- WRITE PATH ---
+
+    // Whether a new post of the author is pushed to follower timelines (checked once per fan-out job)
+    public boolean shouldFanOut(UUID authorId) {
+        if (subscriptionRepository.countByFollowingId(authorId) >= heavyAuthorThreshold) {
+            // Once heavy, always read-merged (older posts may already sit in timelines,
+            // the read path de-duplicates them)
+            redisTemplate.opsForSet().add(HEAVY_AUTHORS_KEY, authorId.toString());
+            return false;
+        }
+        return true;
+    }
+
+    // One batch of followers of a post's fan-out; a Redis failure only loses timeline entries
+    public void push(List<UUID> followerIds, UUID postId, LocalDateTime createdAt) {
+        try {
+            pushAll(followerIds, postId.toString(), score(createdAt));
+        } catch (RuntimeException e) {
+            log.warn("Timeline fan-out failed for post {} ({} followers)", postId, followerIds.size(), e);
+        }
+    }
+
+    // Called on follow: seed the follower's timeline with the author's latest posts
+    public void backfill(UUID followerId, UUID authorId) {
+        if (isHeavy(authorId))
+            return;
+
+        List<Post> recent = postRepository.findByAuthorIdAndStatus(authorId, PostStatus.PUBLISHED,
+                PageRequest.of(0, backfillSize, Sort.by("createdAt").descending()));
+        if (recent.isEmpty())
+            return;
+
+        String key = TIMELINE_KEY + followerId;
+        for (Post p : recent) {
+            redisTemplate.opsForZSet().add(key, p.getId().toString(), score(p.getCreatedAt()));
+        }
+        trim(key);
+    }
+
+    // Called on unfollow: drop the author's posts from the follower's timeline.
+    // A capped timeline can never hold more than maxSize of the author's posts.
+    public void prune(UUID followerId, UUID authorId) {
+        List<UUID> ids = postRepository.findIdsByAuthorIdAndStatus(authorId, PostStatus.PUBLISHED,
+                PageRequest.of(0, maxSize));
+        if (ids.isEmpty())
+            return;
+
+        redisTemplate.opsForZSet().remove(TIMELINE_KEY + followerId, ids.stream().map(UUID::toString).toArray());
+    }
+
+    // --- READ PATH ---
+
+    /**
+     * Returns up to size + 1 published posts after the cursor, newest first.
+     * The extra element only signals that another page exists.
+     */
+    public List<Post> readFeed(UUID userId, PostCursor cursor, int size) {
+        String key = TIMELINE_KEY + userId;
+        int limit = size + 1;
+
+        if (cursor == PostCursor.START && !Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            rebuild(userId);
+        }
+
+        Map<UUID, Post> merged = new LinkedHashMap<>();
+
+        // 1. Pushed entries, newest first. Deleted or unpublished posts and ties on
+        // the cursor millisecond are skipped; the range is read further until limit
+        // posts are found or the timeline is exhausted, so gaps never end the feed.
+        double maxScore = score(cursor.getCreatedAt());
+        long batch = limit * 2L;
+        long offset = 0;
+        int found = 0;
+        while (found < limit) {
+            Set<TypedTuple<String>> entries = redisTemplate.opsForZSet().reverseRangeByScoreWithScores(
+                    key, Double.NEGATIVE_INFINITY, maxScore, offset, batch);
+            if (entries == null || entries.isEmpty())
+                break;
+
+            List<UUID> ids = entries.stream().map(e -> UUID.fromString(e.getValue())).toList();
+            for (Post p : postRepository.findWithAuthorByIdInAndStatus(ids, PostStatus.PUBLISHED)) {
+                if (cursor.comesBefore(p) && merged.putIfAbsent(p.getId(), p) == null)
+                    found++;
+            }
+
+            if (entries.size() < batch)
+                break;
+            offset += entries.size();
+        }
+
+        // 2. Fan-out-on-read for heavy authors this user follows
+        List<UUID> heavyAuthors = heavyAuthorsFollowedBy(userId);
+        if (!heavyAuthors.isEmpty()) {
+            postRepository.findByAuthorIdInAfterCursor(heavyAuthors, PostStatus.PUBLISHED,
+                    cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, limit))
+                    .forEach(p -> merged.putIfAbsent(p.getId(), p));
+        }
+
+        return merged.values().stream()
+                .filter(cursor::comesBefore)
+                .sorted(PostCursor.NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    // --- HELPERS ---
+
+    // Cold start (new user, evicted key): one query over everyone the user follows
+    private void rebuild(UUID userId) {
+        Set<UUID> followingIds = subscriptionRepository.findFollowingIdsByFollowerId(userId);
+        if (followingIds.isEmpty())
+            return;
+
+        List<Post> recent = postRepository.findByAuthorIdInAfterCursor(followingIds, PostStatus.PUBLISHED,
+                PostCursor.START.getCreatedAt(), PostCursor.START.getId(), PageRequest.of(0, maxSize));
+
+        String key = TIMELINE_KEY + userId;
+        for (Post p : recent) {
+            redisTemplate.opsForZSet().add(key, p.getId().toString(), score(p.getCreatedAt()));
+        }
+        log.debug("Rebuilt timeline for {} with {} posts", userId, recent.size());
+    }
+
+    private List<UUID> heavyAuthorsFollowedBy(UUID userId) {
+        Set<String> heavy = redisTemplate.opsForSet().members(HEAVY_AUTHORS_KEY);
+        if (heavy == null || heavy.isEmpty())
+            return List.of();
+
+        List<UUID> result = new ArrayList<>();
+        for (UUID followingId : subscriptionRepository.findFollowingIdsByFollowerId(userId)) {
+            if (heavy.contains(followingId.toString()))
+                result.add(followingId);
+        }
+        return result;
+    }
+
+    private boolean isHeavy(UUID authorId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(HEAVY_AUTHORS_KEY, authorId.toString()));
+    }
+
+    // One pipelined round-trip per batch of followers
+    private void pushAll(List<UUID> followerIds, String member, double score) {
+        if (followerIds.isEmpty())
+            return;
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (UUID followerId : followerIds) {
+                    String key = TIMELINE_KEY + followerId;
+                    ops.opsForZSet().add(key, member, score);
+                    ops.opsForZSet().removeRange(key, 0, -(maxSize + 1L));
+                }
+                return null;
+            }
+        });
+    }
+
+    // Keep only the newest maxSize entries (ranks are ascending by score)
+    private void trim(String key) {
+        redisTemplate.opsForZSet().removeRange(key, 0, -(maxSize + 1L));
+    }
+
+    private static double score(LocalDateTime createdAt) {
+        return createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,235 @@
+package com.blog._1.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Liked and saved post ids per user, so enriching a page with the
+ * likedByCurrentUser / savedByCurrentUser flags is a binary search in memory
+ * instead of two IN queries.
+ *
+ * A user's ids are loaded on first use and kept as sorted arrays of
+ * (msb, lsb) pairs, 16 bytes per id. LikeService and toggleSave patch the
+ * arrays in place (copy-on-write) once their statement has committed; the
+ * other nodes just drop their copy, through Redis pub/sub.
+ * Message format: "nodeId|userId".
+ *
+ * The cache is bounded by the total number of ids held (LRU eviction).
+ * Users with more than interactions.cache.max-ids-per-user ids are not
+ * cached at all: {@link #get} returns null and the caller queries instead.
+ * Ids of deleted posts may linger, which is harmless since they are never probed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserInteractionCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "interactions:invalidate";
+
+    private static final long[] NO_IDS = new long[0];
+
+    private static final Comparator<UUID> PAIR_ORDER = (a, b) -> compare(
+            a.getMostSignificantBits(), a.getLeastSignificantBits(),
+            b.getMostSignificantBits(), b.getLeastSignificantBits());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${interactions.cache.max-ids:2000000}")
+    private long maxIds;
+
+    @Value("${interactions.cache.max-ids-per-user:20000}")
+    private int maxIdsPerUser;
+
+    @Value("${interactions.cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private Cache<UUID, Interactions> cache;
+
+    /**
+     * Immutable snapshot of one user's interactions.
+     * An oversized user is cached as {@link #TOO_LARGE} so the size check is not repeated.
+     */
+    public record Interactions(long[] liked, long[] saved) {
+
+        static final Interactions TOO_LARGE = new Interactions(NO_IDS, NO_IDS);
+
+        public boolean isLiked(UUID postId) {
+            return contains(liked, postId);
+        }
+
+        public boolean isSaved(UUID postId) {
+            return contains(saved, postId);
+        }
+
+        Interactions withLiked(UUID postId, boolean present) {
+            return new Interactions(update(liked, postId, present), saved);
+        }
+
+        Interactions withSaved(UUID postId, boolean present) {
+            return new Interactions(liked, update(saved, postId, present));
+        }
+
+        int weight() {
+            return 1 + (liked.length + saved.length) / 2;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxIds)
+                .weigher((UUID userId, Interactions i) -> i.weight())
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    // --- READ ---
+
+    // Null when the user has too many interactions to be cached
+    public Interactions get(UUID userId) {
+        Interactions interactions = cache.get(userId, this::load);
+        return interactions == Interactions.TOO_LARGE ? null : interactions;
+    }
+
+    private Interactions load(UUID userId) {
+        // One row more than allowed tells "too large" apart from "exactly at the limit"
+        List<UUID> liked = jdbcTemplate.queryForList(
+                "SELECT post_id FROM post_likes WHERE user_id = ? LIMIT ?", UUID.class, userId, maxIdsPerUser + 1);
+        if (liked.size() > maxIdsPerUser)
+            return Interactions.TOO_LARGE;
+
+        List<UUID> saved = jdbcTemplate.queryForList(
+                "SELECT post_id FROM saved_posts WHERE user_id = ? LIMIT ?", UUID.class, userId,
+                maxIdsPerUser - liked.size() + 1);
+        if (liked.size() + saved.size() > maxIdsPerUser)
+            return Interactions.TOO_LARGE;
+
+        return new Interactions(toSortedPairs(liked), toSortedPairs(saved));
+    }
+
+    // --- WRITE (called once the change is committed) ---
+
+    public void onLikeChanged(UUID userId, UUID postId, boolean liked) {
+        // computeIfPresent waits for an in-flight load, so the change is never lost;
+        // users nobody has read yet are simply loaded later with the change included
+        cache.asMap().computeIfPresent(userId, (id, i) -> i == Interactions.TOO_LARGE ? i : i.withLiked(postId, liked));
+        publishInvalidation(userId);
+    }
+
+    public void onSaveChanged(UUID userId, UUID postId, boolean saved) {
+        cache.asMap().computeIfPresent(userId, (id, i) -> i == Interactions.TOO_LARGE ? i : i.withSaved(postId, saved));
+        publishInvalidation(userId);
+    }
+
+    // --- Cross-node invalidation ---
+
+    private void publishInvalidation(UUID userId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + userId);
+        } catch (RuntimeException e) {
+            // The TTL still bounds how long another node may serve the old flags
+            log.warn("Failed to publish interaction invalidation for user {}", userId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+        if (parts.length != 2 || nodeId.equals(parts[0]))
+            return;
+
+        try {
+            cache.invalidate(UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed interaction invalidation message");
+        }
+    }
+
+    // --- Sorted (msb, lsb) pair arrays ---
+
+    static long[] toSortedPairs(List<UUID> ids) {
+        if (ids.isEmpty())
+            return NO_IDS;
+
+        UUID[] sorted = ids.toArray(new UUID[0]);
+        Arrays.sort(sorted, PAIR_ORDER);
+        long[] pairs = new long[sorted.length * 2];
+        for (int i = 0; i < sorted.length; i++) {
+            pairs[2 * i] = sorted[i].getMostSignificantBits();
+            pairs[2 * i + 1] = sorted[i].getLeastSignificantBits();
+        }
+        return pairs;
+    }
+
+    private static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int c = Long.compare(msb1, msb2);
+        return c != 0 ? c : Long.compare(lsb1, lsb2);
+    }
+
+    // Index of the pair when present, otherwise -(insertion point) - 1, as Arrays.binarySearch
+    static int search(long[] pairs, UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int lo = 0;
+        int hi = pairs.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(pairs[2 * mid], pairs[2 * mid + 1], msb, lsb);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -lo - 1;
+    }
+
+    private static boolean contains(long[] pairs, UUID id) {
+        return search(pairs, id) >= 0;
+    }
+
+    static long[] update(long[] pairs, UUID id, boolean present) {
+        int pos = search(pairs, id);
+        if (present == pos >= 0)
+            return pairs;
+
+        if (present) {
+            int at = -pos - 1;
+            long[] result = new long[pairs.length + 2];
+            System.arraycopy(pairs, 0, result, 0, 2 * at);
+            result[2 * at] = id.getMostSignificantBits();
+            result[2 * at + 1] = id.getLeastSignificantBits();
+            System.arraycopy(pairs, 2 * at, result, 2 * at + 2, pairs.length - 2 * at);
+            return result;
+        }
+
+        long[] result = new long[pairs.length - 2];
+        System.arraycopy(pairs, 0, result, 0, 2 * pos);
+        System.arraycopy(pairs, 2 * pos + 2, result, 2 * pos, pairs.length - 2 * pos - 2);
+        return result;
+    }
+}
@@ -16,8 +16,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -28,6 +28,7 @@ import com.blog._1.dto.post.CacheablePage;
 import com.blog._1.dto.post.PostMinimalDTO;
 import com.blog._1.dto.user.ProfilePatchRequest;
 import com.blog._1.dto.user.UserUpdateRequest;
+import com.blog._1.dto.user.UserPrincipalSnapshot;
 import com.blog._1.dto.user.UserPublicProfileDTO;
 import com.blog._1.dto.user.UserResponse;
 import com.blog._1.models.Role;
@@ -45,7 +46,8 @@ public class UserService {
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final SubscriptionRepository subscriptionRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final PageCountService pageCountService;
 
     @Autowired
     private ApplicationContext applicationContext;
@@ -70,12 +72,19 @@ public class UserService {
         return getUserOrThrow(id);
     }
 
+    // Read on every authenticated request; evicted by ban, role change and delete
+    @Cacheable(value = "user_principal", key = "#id")
+    public UserPrincipalSnapshot getPrincipalSnapshot(UUID id) {
+        return userRepository.findPrincipalSnapshot(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
     public User createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already taken");
         }
         user.setRole(Role.USER);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         return userRepository.save(user);
     }
 
@@ -106,7 +115,7 @@ public class UserService {
         user.setBio(request.getBio());
 
         if (hasText(request.getPassword())) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
         }
 
         return userRepository.save(user);
@@ -163,8 +172,8 @@ public class UserService {
     // NOTE: Changed signature from (User user) to (UUID userId) to optimize caching
     // layer
     public UserPublicProfileDTO getPublicProfile(UUID userId) {
-        // 1. Get Cache-safe base DTO
-        UserPublicProfileDTO cachedDto = getSelf().getBasePublicProfile(userId);
+        // 1. Get the cached base DTO (shared near-cache instance, so copy it)
+        UserPublicProfileDTO cachedDto = getSelf().getBasePublicProfile(userId).copy();
 
         // 2. Enrich with specific user connection status
         var auth = SecurityContextHolder.getContext().getAuthentication();
@@ -230,14 +239,18 @@ public class UserService {
 
     // --- 3. ADMIN METHODS ---
 
-    public Page<User> getAllUsers(int page, int size) {
-        return userRepository.findAll(PageRequest.of(page, size));
+    public Page<User> getAllUsers(int page, int size, PageCountService.Mode countMode) {
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<User> users = userRepository.findAllBy(pageable);
+        return pageCountService.toPage(users.getContent(), pageable, users.hasNext(), countMode, "users:all",
+                "users", userRepository::count);
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "single_user", key = "#id"),
-            @CacheEvict(value = "user_pages", allEntries = true)
+            @CacheEvict(value = "user_pages", allEntries = true),
+            @CacheEvict(value = "user_principal", key = "#id")
     })
     public void banUser(UUID id) {
         User user = getUserById(id);
@@ -247,7 +260,8 @@ public class UserService {
 
     @Caching(evict = {
             @CacheEvict(value = "single_user", key = "#id"),
-            @CacheEvict(value = "user_pages", allEntries = true)
+            @CacheEvict(value = "user_pages", allEntries = true),
+            @CacheEvict(value = "user_principal", key = "#id")
     })
     public void deleteUser(UUID id) {
         if (!userRepository.existsById(id)) {
@@ -315,10 +329,10 @@ public class UserService {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         "Current password is required to set a new password");
             }
-            if (!passwordEncoder.matches(request.getOldpassword(), user.getPassword())) {
+            if (!passwordHashingService.matches(request.getOldpassword(), user.getPassword())) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Current password incorrect");
             }
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
         }
 
         userRepository.save(user);
@@ -327,7 +341,8 @@ public class UserService {
 
     @Caching(evict = {
             @CacheEvict(value = "single_user", key = "#userId"),
-            @CacheEvict(value = "user_pages", allEntries = true)
+            @CacheEvict(value = "user_pages", allEntries = true),
+            @CacheEvict(value = "user_principal", key = "#userId")
     })
     public void updateUserRole(UUID userId, Role newRole) {
         User user = getUserById(userId);
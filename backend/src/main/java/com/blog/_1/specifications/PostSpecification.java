@@ -1,16 +1,19 @@
 package com.blog._1.specifications;
 
+import com.blog._1.dto.post.PostCursor;
 import com.blog._1.models.*;
 import org.springframework.data.jpa.domain.Specification;
 import jakarta.persistence.criteria.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 public class PostSpecification {
 
+    // Keywords are matched by PostSearchService (full-text index), not here
     public static Specification<Post> buildSearchSpec(
-            String keyword, String author, List<String> tags,
+            String author, List<String> tags,
             Boolean liked, Boolean followed, UUID currentUserId) {
 
         return (root, query, cb) -> {
@@ -22,14 +25,6 @@ public class PostSpecification {
             // Rule 2: Only show published posts
             predicates.add(cb.equal(root.get("status"), PostStatus.PUBLISHED));
 
-            // FILTER: General Keyword (Matches Title OR Description)
-            if (keyword != null && !keyword.isBlank()) {
-                String pattern = "%" + keyword.toLowerCase() + "%";
-                Predicate titlePred = cb.like(cb.lower(root.get("title")), pattern);
-                Predicate descPred = cb.like(cb.lower(root.get("description")), pattern);
-                predicates.add(cb.or(titlePred, descPred));
-            }
-
             // FILTER: Specific Author Username
             if (author != null && !author.isBlank()) {
                 Join<Post, User> authorJoin = root.join("author", JoinType.INNER);
@@ -66,4 +61,19 @@ public class PostSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
-}
\ No newline at end of file
+
+    // KEYSET: posts strictly after the cursor in (createdAt DESC, id DESC) order.
+    // The "<=" bound is what lets Postgres seek on idx_posts_status_created_at.
+    public static Specification<Post> afterCursor(PostCursor cursor) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            Path<UUID> id = root.get("id");
+
+            return cb.and(
+                    cb.lessThanOrEqualTo(createdAt, cursor.getCreatedAt()),
+                    cb.or(
+                            cb.lessThan(createdAt, cursor.getCreatedAt()),
+                            cb.lessThan(id, cursor.getId())));
+        };
+    }
+}
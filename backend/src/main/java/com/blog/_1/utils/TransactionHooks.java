@@ -0,0 +1,29 @@
+package com.blog._1.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects outside the database (Redis, SSE, queues) until the
+ * surrounding transaction has committed, so a rollback never leaves them behind.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // Runs immediately when called outside a transaction
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
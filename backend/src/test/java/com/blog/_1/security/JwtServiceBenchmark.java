@@ -0,0 +1,95 @@
+package com.blog._1.security;
+
+import java.security.Key;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blog._1.models.Role;
+import com.blog._1.models.User;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Token parse/verify throughput per authenticated request, before and after
+ * the shared parser (user-016):
+ * - before: a parser built per call, three parses per request (isValidToken, extractUserId, extractRole);
+ * - parseOnce: the shared parser, one signature check and claim decode;
+ * - verifyAccessToken: what JwtAuthFilter calls, memoized per token.
+ *
+ * Not part of the regular test run (no *Test suffix); run it explicitly:
+ * mvn test -Dtest=JwtServiceBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private Key secretKey;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        secretKey = (Key) ReflectionTestUtils.getField(jwtService, "secretKey");
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("bench");
+        user.setRole(Role.USER);
+        token = jwtService.generateToken(user);
+    }
+
+    private Claims parseWithNewParser() {
+        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public void before(Blackhole bh) {
+        bh.consume(parseWithNewParser());
+        bh.consume(UUID.fromString(parseWithNewParser().getSubject()));
+        bh.consume(parseWithNewParser().get("role", String.class));
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole bh) {
+        Claims claims = jwtService.parseClaims(token);
+        bh.consume(UUID.fromString(claims.getSubject()));
+        bh.consume(claims.get("role", String.class));
+    }
+
+    @Benchmark
+    public JwtService.AccessToken verifyAccessToken() {
+        return jwtService.verifyAccessToken(token);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
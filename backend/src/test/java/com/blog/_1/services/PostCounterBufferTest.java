@@ -0,0 +1,127 @@
+package com.blog._1.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class PostCounterBufferTest {
+
+    // Records what each flush would have written to posts.like_count / comment_count
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        final Map<UUID, AtomicLong> likes = new ConcurrentHashMap<>();
+        final Map<UUID, AtomicLong> comments = new ConcurrentHashMap<>();
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            for (Object[] row : batchArgs) {
+                UUID id = (UUID) row[2];
+                likes.computeIfAbsent(id, k -> new AtomicLong()).addAndGet((long) row[0]);
+                comments.computeIfAbsent(id, k -> new AtomicLong()).addAndGet((long) row[1]);
+            }
+            return new int[batchArgs.size()];
+        }
+
+        long likesOf(UUID id) {
+            AtomicLong v = likes.get(id);
+            return v == null ? 0 : v.get();
+        }
+
+        long commentsOf(UUID id) {
+            AtomicLong v = comments.get(id);
+            return v == null ? 0 : v.get();
+        }
+    }
+
+    @Test
+    void flushedTotalsMatchAddsWithoutFlush() {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        PostCounterBuffer buffer = new PostCounterBuffer(jdbc);
+        UUID post = UUID.randomUUID();
+
+        buffer.addLikes(post, 3);
+        buffer.addLikes(post, -1);
+        buffer.addComments(post, 2);
+        assertEquals(2, buffer.pendingLikes(post));
+
+        buffer.flush();
+        assertEquals(2, jdbc.likesOf(post));
+        assertEquals(2, jdbc.commentsOf(post));
+        assertEquals(0, buffer.pendingLikes(post));
+        assertEquals(0, buffer.pendingComments(post));
+    }
+
+    @Test
+    void noDeltaIsLostWhileFlushRemovesIdleEntries() throws Exception {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        PostCounterBuffer buffer = new PostCounterBuffer(jdbc);
+
+        // Writers move from post to post in bursts, so entries keep going idle
+        // and being removed by flush() while other writers come back to them
+        List<UUID> posts = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            posts.add(UUID.randomUUID());
+        }
+
+        int writers = 8;
+        int addsPerWriter = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        pool.submit(() -> {
+            start.await();
+            while (writing.get()) {
+                buffer.flush();
+            }
+            return null;
+        });
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < addsPerWriter; i++) {
+                    UUID post = posts.get((seed * 5 + i / 100) % posts.size());
+                    buffer.addLikes(post, 1);
+                    buffer.addComments(post, 1);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (var f : futures) {
+            f.get(1, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        buffer.flush();
+
+        long totalLikes = 0;
+        long totalComments = 0;
+        for (UUID post : posts) {
+            totalLikes += jdbc.likesOf(post) + buffer.pendingLikes(post);
+            totalComments += jdbc.commentsOf(post) + buffer.pendingComments(post);
+            assertEquals(0, buffer.pendingLikes(post));
+        }
+        assertEquals((long) writers * addsPerWriter, totalLikes);
+        assertEquals((long) writers * addsPerWriter, totalComments);
+    }
+}
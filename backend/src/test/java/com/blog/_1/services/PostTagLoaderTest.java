@@ -0,0 +1,113 @@
+package com.blog._1.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.blog._1.models.Hashtag;
+import com.blog._1.models.Post;
+import com.blog._1.models.PostStatus;
+import com.blog._1.models.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// Regression guard: tags of a page cost one query, whatever the page size (no N+1 on Post.hashtags)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PostTagLoader.class)
+class PostTagLoaderTest {
+
+    @Autowired
+    private PostTagLoader postTagLoader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User author;
+    private List<Hashtag> hashtags;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        author = new User();
+        author.setUsername("tagloader");
+        author.setEmail("tagloader@test.local");
+        author.setPassword("secret");
+        entityManager.persist(author);
+
+        hashtags = new ArrayList<>();
+        for (String name : List.of("java", "spring", "redis")) {
+            Hashtag hashtag = Hashtag.builder().name(name).build();
+            entityManager.persist(hashtag);
+            hashtags.add(hashtag);
+        }
+    }
+
+    private List<UUID> createPosts(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Post post = new Post();
+            post.setTitle("post " + i);
+            post.setStatus(PostStatus.PUBLISHED);
+            post.setAuthor(author);
+            // Every third post has no tag at all
+            for (int t = 0; t < i % 3; t++) {
+                post.addHashtag(hashtags.get((i + t) % hashtags.size()));
+            }
+            entityManager.persist(post);
+            ids.add(post.getId());
+        }
+        // Start from an empty persistence context, as a request would
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private long statementsFor(List<UUID> ids) {
+        statistics.clear();
+        postTagLoader.load(ids);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void tagQueriesDoNotGrowWithPageSize() {
+        List<UUID> small = createPosts(3);
+        List<UUID> large = createPosts(40);
+
+        assertEquals(1, statementsFor(small));
+        assertEquals(1, statementsFor(large));
+    }
+
+    @Test
+    void emptyPageIssuesNoQuery() {
+        assertEquals(0, statementsFor(List.of()));
+    }
+
+    @Test
+    void loadsTagsOfEveryPost() {
+        List<UUID> ids = createPosts(6);
+
+        Map<UUID, Set<String>> tags = postTagLoader.load(ids);
+
+        assertEquals(4, tags.size());
+        assertEquals(Set.of("spring"), tags.get(ids.get(1)));
+        assertEquals(Set.of("redis", "java"), tags.get(ids.get(2)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.blog._1.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UserInteractionCacheTest {
+
+    // Ordered by (msb, lsb) as signed longs
+    private static final UUID A = new UUID(Long.MIN_VALUE, 0);
+    private static final UUID B = new UUID(-1, 7);
+    private static final UUID C = new UUID(3, 1);
+    private static final UUID D = new UUID(3, 2);
+    private static final UUID E = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private static long[] pairs(UUID... ids) {
+        return UserInteractionCache.toSortedPairs(List.of(ids));
+    }
+
+    @Test
+    void emptyArrays() {
+        long[] empty = pairs();
+
+        assertEquals(0, empty.length);
+        assertEquals(-1, UserInteractionCache.search(empty, C));
+        assertSame(empty, UserInteractionCache.update(empty, C, false));
+        assertArrayEquals(new long[] { 3, 1 }, UserInteractionCache.update(empty, C, true));
+    }
+
+    @Test
+    void toSortedPairsOrdersByMsbThenLsb() {
+        assertArrayEquals(new long[] {
+                Long.MIN_VALUE, 0, -1, 7, 3, 1, 3, 2, Long.MAX_VALUE, Long.MAX_VALUE },
+                pairs(D, E, B, C, A));
+    }
+
+    @Test
+    void insertAtHead() {
+        long[] result = UserInteractionCache.update(pairs(B, C), A, true);
+
+        assertArrayEquals(pairs(A, B, C), result);
+    }
+
+    @Test
+    void insertInMiddle() {
+        long[] result = UserInteractionCache.update(pairs(B, E), C, true);
+
+        assertArrayEquals(pairs(B, C, E), result);
+    }
+
+    @Test
+    void insertAtTail() {
+        long[] result = UserInteractionCache.update(pairs(A, B), E, true);
+
+        assertArrayEquals(pairs(A, B, E), result);
+    }
+
+    @Test
+    void insertingAPresentIdKeepsTheArray() {
+        long[] original = pairs(A, C);
+
+        assertSame(original, UserInteractionCache.update(original, C, true));
+    }
+
+    @Test
+    void updateNeverMutatesItsInput() {
+        long[] original = pairs(A, C);
+        long[] snapshot = original.clone();
+
+        UserInteractionCache.update(original, B, true);
+        UserInteractionCache.update(original, A, false);
+
+        assertArrayEquals(snapshot, original);
+    }
+
+    @Test
+    void deleteTheLastPair() {
+        assertEquals(0, UserInteractionCache.update(pairs(C), C, false).length);
+        assertArrayEquals(pairs(A, B), UserInteractionCache.update(pairs(A, B, E), E, false));
+    }
+
+    @Test
+    void deleteHeadAndMiddle() {
+        assertArrayEquals(pairs(B, C), UserInteractionCache.update(pairs(A, B, C), A, false));
+        assertArrayEquals(pairs(A, C), UserInteractionCache.update(pairs(A, B, C), B, false));
+    }
+
+    @Test
+    void idsDifferingOnlyInLsb() {
+        long[] onlyC = pairs(C);
+
+        assertEquals(0, UserInteractionCache.search(onlyC, C));
+        assertEquals(-2, UserInteractionCache.search(onlyC, D));
+        assertEquals(-1, UserInteractionCache.search(onlyC, new UUID(3, 0)));
+
+        long[] both = UserInteractionCache.update(onlyC, D, true);
+        assertArrayEquals(new long[] { 3, 1, 3, 2 }, both);
+
+        // Removing one must leave the other in place
+        assertArrayEquals(new long[] { 3, 2 }, UserInteractionCache.update(both, C, false));
+        assertArrayEquals(new long[] { 3, 1 }, UserInteractionCache.update(both, D, false));
+    }
+
+    @Test
+    void searchReportsInsertionPoints() {
+        long[] ids = pairs(A, C, E);
+
+        assertEquals(-1, UserInteractionCache.search(ids, new UUID(Long.MIN_VALUE, -1)));
+        assertEquals(-2, UserInteractionCache.search(ids, B));
+        assertEquals(-3, UserInteractionCache.search(ids, D));
+        assertEquals(2, UserInteractionCache.search(ids, E));
+    }
+
+    @Test
+    void interactionsFlagsFollowUpdates() {
+        UserInteractionCache.Interactions interactions = new UserInteractionCache.Interactions(pairs(), pairs(C));
+
+        UserInteractionCache.Interactions liked = interactions.withLiked(D, true);
+
+        assertTrue(liked.isLiked(D));
+        assertFalse(liked.isLiked(C));
+        assertTrue(liked.isSaved(C));
+        assertFalse(liked.withLiked(D, false).isLiked(D));
+        assertFalse(interactions.isLiked(D));
+    }
+}
@@ -0,0 +1,102 @@
+import http from "k6/http";
+import { check, fail } from "k6";
+import { Counter } from "k6/metrics";
+
+// Contention benchmark for like/unlike: many users hammer the same post, each
+// sending bursts of parallel requests (double clicks). At the end every user
+// has liked the post exactly once, so likeCount must have grown by LIKERS.
+//
+//   k6 run -e POST_ID=<published post id> k6/tests/like-contention.test.js
+//
+// Run the backend with --rate-limit.enabled=false: all VUs share one IP and
+// the per-IP token bucket would otherwise answer 429 long before the end.
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8080";
+const POST_ID = __ENV.POST_ID;
+const LIKERS = Number(__ENV.LIKERS || 10);
+const ROUNDS = Number(__ENV.ROUNDS || 20);
+const CLICKS = Number(__ENV.CLICKS || 4);
+
+const rejected = new Counter("like_requests_rejected");
+
+export const options = {
+  scenarios: {
+    likes: {
+      executor: "per-vu-iterations",
+      vus: LIKERS,
+      iterations: ROUNDS,
+      maxDuration: "2m",
+    },
+  },
+  thresholds: {
+    like_requests_rejected: ["count==0"],
+    checks: ["rate==1"],
+  },
+};
+
+function jsonHeaders(token) {
+  const headers = { "Content-Type": "application/json" };
+  if (token) headers.Authorization = `Bearer ${token}`;
+  return { headers };
+}
+
+function likeCount(token) {
+  const res = http.get(`${BASE_URL}/api/posts/${POST_ID}`, jsonHeaders(token));
+  if (res.status !== 200) fail(`Reading post failed: status=${res.status}`);
+  return res.json();
+}
+
+// Fresh users, so the expected final count does not depend on earlier runs
+export function setup() {
+  if (!POST_ID) fail("POST_ID is required");
+
+  const run = Date.now().toString(36);
+  const tokens = [];
+  for (let i = 0; i < LIKERS; i++) {
+    const res = http.post(
+      `${BASE_URL}/api/auth/register`,
+      JSON.stringify({
+        username: `lk_${run}_${i}`,
+        email: `lk_${run}_${i}@k6.test`,
+        password: "k6-contention",
+      }),
+      jsonHeaders()
+    );
+    if (res.status !== 201) fail(`Register failed: status=${res.status}, body=${res.body}`);
+    tokens.push(res.json("token"));
+  }
+
+  return { tokens, initialLikes: likeCount(tokens[0]).likeCount };
+}
+
+function burst(token, action) {
+  const url = `${BASE_URL}/api/likes/${POST_ID}/${action}`;
+  const responses = http.batch(
+    Array.from({ length: CLICKS }, () => ["POST", url, null, jsonHeaders(token)])
+  );
+  for (const res of responses) {
+    if (res.status !== 200) rejected.add(1);
+  }
+}
+
+// Each round: a burst of unlikes then a burst of likes, racing the other VUs
+export default function (data) {
+  const token = data.tokens[(__VU - 1) % data.tokens.length];
+  burst(token, "unlike");
+  burst(token, "like");
+}
+
+export function teardown(data) {
+  const post = likeCount(data.tokens[0]);
+
+  check(post, {
+    "likeCount grew by exactly one per user": (p) => p.likeCount === data.initialLikes + LIKERS,
+    "liker sees likedByCurrentUser": (p) => p.likedByCurrentUser === true,
+  });
+
+  // Repeating a like is a no-op: the count must not move
+  burst(data.tokens[0], "like");
+  check(likeCount(data.tokens[0]), {
+    "double like is idempotent": (p) => p.likeCount === data.initialLikes + LIKERS,
+  });
+}